@@ -16,6 +16,8 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * This abstract converter provides a common way to handle {@code null} values
  * by defining that an empty string is the literal value of {@code null}.
@@ -36,6 +38,20 @@ public abstract class AbstractConverter<T> implements Converter<T> {
         return object == null ? "" : asStringInternal(object);
     }
 
+    @Override
+    public T asObject(CharSequence source, int start, int end) {
+        checkRegion(source, start, end);
+        return start == end ? null : asObjectInternal(source, start, end);
+    }
+
+    @Override
+    public <A extends Appendable> A appendTo(A out, T object) throws IOException {
+        if (object != null) {
+            appendInternal(out, object);
+        }
+        return out;
+    }
+
     /**
      * Converts a literal value to an object. This method is invoked by
      * {@link #asObject(String)}, when the literal value is not {@code null}
@@ -54,4 +70,40 @@ public abstract class AbstractConverter<T> implements Converter<T> {
      * @return The literal representation of the object.
      */
     protected abstract String asStringInternal(T object);
+
+    /**
+     * Converts a region of a character sequence to an object. This method is
+     * invoked by {@link #asObject(CharSequence, int, int)}, when the region is
+     * not empty. The default implementation converts the region to a string
+     * and invokes {@link #asObjectInternal(String)}.
+     *
+     * @param source The character sequence containing the literal value.
+     * @param start The start index of the literal value, inclusive.
+     * @param end The end index of the literal value, exclusive.
+     * @return An object represented by the literal value.
+     */
+    protected T asObjectInternal(CharSequence source, int start, int end) {
+        return asObjectInternal(source.subSequence(start, end).toString());
+    }
+
+    /**
+     * Appends the literal representation of an object to an appendable. This
+     * method is invoked by {@link #appendTo(Appendable, Object)}, when the
+     * object is not {@code null}. The default implementation appends the
+     * result of {@link #asStringInternal(Object)}.
+     *
+     * @param out The appendable to which the literal value is appended.
+     * @param object The object to be converted.
+     * @throws IOException If an I/O error occurs.
+     */
+    protected void appendInternal(Appendable out, T object) throws IOException {
+        out.append(asStringInternal(object));
+    }
+
+    static void checkRegion(CharSequence source, int start, int end) {
+        if (start < 0 || start > end || end > source.length()) {
+            throw new IndexOutOfBoundsException("Region [" + start + ", " + end
+                    + ") is out of bounds [0, " + source.length() + ").");
+        }
+    }
 }
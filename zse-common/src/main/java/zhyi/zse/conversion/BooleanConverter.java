@@ -16,10 +16,15 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
-class BooleanConverter extends AbstractConverter<Boolean> {
+class BooleanConverter extends AbstractConverter<Boolean>
+        implements PrimitiveConverter.OfBoolean {
+    private static final String TRUE = "true";
+
     @Override
     public Boolean asObjectInternal(String literalValue) {
         return Boolean.valueOf(literalValue);
@@ -29,4 +34,39 @@ class BooleanConverter extends AbstractConverter<Boolean> {
     public String asStringInternal(Boolean object) {
         return object.toString();
     }
+
+    @Override
+    protected Boolean asObjectInternal(CharSequence source, int start, int end) {
+        return Boolean.valueOf(parseBoolean(source, start, end));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Boolean object) throws IOException {
+        out.append(object.toString());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Like {@link Boolean#parseBoolean(String)}, this method returns {@code true}
+     * if the literal value is {@code "true"} ignoring case, otherwise {@code false}.
+     */
+    @Override
+    public boolean parseBoolean(CharSequence source, int start, int end) {
+        checkRegion(source, start, end);
+        if (end - start != TRUE.length()) {
+            return false;
+        }
+        for (int i = 0; i < TRUE.length(); i++) {
+            if (Character.toLowerCase(source.charAt(start + i)) != TRUE.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public StringBuilder appendTo(StringBuilder sb, boolean value) {
+        return sb.append(value);
+    }
 }
@@ -16,6 +16,8 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
@@ -29,4 +31,18 @@ class ByteConverter extends AbstractConverter<Byte> {
     public String asStringInternal(Byte object) {
         return object.toString();
     }
+
+    @Override
+    protected Byte asObjectInternal(CharSequence source, int start, int end) {
+        return Byte.valueOf((byte) LongConverter.parse(source, start, end, Byte.MIN_VALUE, Byte.MAX_VALUE));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Byte object) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(object.intValue());
+        } else {
+            out.append(object.toString());
+        }
+    }
 }
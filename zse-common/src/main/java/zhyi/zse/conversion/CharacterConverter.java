@@ -16,6 +16,8 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
@@ -29,4 +31,14 @@ class CharacterConverter extends AbstractConverter<Character> {
     public String asStringInternal(Character object) {
         return object.toString();
     }
+
+    @Override
+    protected Character asObjectInternal(CharSequence source, int start, int end) {
+        return Character.valueOf(source.charAt(start));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Character object) throws IOException {
+        out.append(object.charValue());
+    }
 }
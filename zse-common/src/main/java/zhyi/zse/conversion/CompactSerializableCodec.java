@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+import zhyi.zse.lang.ObjectUtils;
+import zhyi.zse.lang.ReusableByteArrayOutputStream;
+
+/**
+ * The default {@link SerializableCodec}, which encodes objects with Java
+ * serialization, or with {@linkplain #register type codecs} registered for
+ * their classes. Encoded bytes not smaller than the {@linkplain
+ * #setCompressionThreshold compression threshold} are compressed with the
+ * deflate algorithm if that makes them smaller.
+ * <p>
+ * The encoded bytes start with a header byte describing the format. Bytes
+ * produced by plain Java serialization, such as those returned by {@link
+ * zhyi.zse.lang.ObjectUtils#marshal ObjectUtils.marshal}, are also accepted
+ * by {@link #decode(byte[])}.
+ * <p>
+ * Encoding buffers are {@linkplain ReusableByteArrayOutputStream reused} per
+ * thread. Compact serializable codecs are thread-safe.
+ *
+ * @author Zhao Yi
+ */
+public class CompactSerializableCodec implements SerializableCodec {
+    private static final int SERIALIZED = 0;
+    private static final int TYPED = 1;
+    private static final int COMPRESSED = 0x10;
+    private static final byte STREAM_MAGIC_HEADER = (byte) 0xAC;
+
+    private ConcurrentMap<Class<?>, TypeCodec<?>> typeCodecMap = new ConcurrentHashMap<>();
+    private ConcurrentMap<String, TypeCodec<?>> typeCodecNameMap = new ConcurrentHashMap<>();
+    private volatile int compressionThreshold = 1024;
+
+    /**
+     * Registers a type codec for a class. The type codec is used for objects
+     * of exactly the specified class, and is identified by the class name in
+     * the encoded bytes.
+     *
+     * @param <T> The type modeled by the class.
+     * @param type The class whose objects are encoded by the type codec.
+     * @param typeCodec The type codec.
+     */
+    public <T extends Serializable> void register(Class<T> type, TypeCodec<T> typeCodec) {
+        typeCodecMap.put(type, typeCodec);
+        typeCodecNameMap.put(type.getName(), typeCodec);
+    }
+
+    /**
+     * Deregisters the type codec for a class.
+     *
+     * @param type The class whose type codec is removed.
+     */
+    public void deregister(Class<? extends Serializable> type) {
+        typeCodecMap.remove(type);
+        typeCodecNameMap.remove(type.getName());
+    }
+
+    /**
+     * Returns the minimum number of bytes that are compressed.
+     *
+     * @return The compression threshold, or a negative number if compression
+     *         is disabled.
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Sets the minimum number of bytes that are compressed. The default
+     * threshold is 1024.
+     *
+     * @param compressionThreshold The compression threshold. If it is negative,
+     *        compression is disabled.
+     */
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Serializable object) throws IOException {
+        ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire();
+        try {
+            int header;
+            buffer.write(0);
+            TypeCodec<Serializable> typeCodec = object == null ? null
+                    : (TypeCodec<Serializable>) typeCodecMap.get(object.getClass());
+            if (typeCodec != null) {
+                header = TYPED;
+                DataOutputStream dout = new DataOutputStream(buffer);
+                dout.writeUTF(object.getClass().getName());
+                typeCodec.write(object, dout);
+                dout.flush();
+            } else {
+                header = SERIALIZED;
+                ObjectUtils.marshal(object, buffer);
+            }
+
+            byte[] bytes = buffer.array();
+            int length = buffer.size();
+            int threshold = compressionThreshold;
+            if (threshold >= 0 && length - 1 >= threshold) {
+                byte[] compressedBytes = compress(bytes, length);
+                if (compressedBytes != null) {
+                    compressedBytes[0] = (byte) (header | COMPRESSED);
+                    return compressedBytes;
+                }
+            }
+            bytes = Arrays.copyOf(bytes, length);
+            bytes[0] = (byte) header;
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Override
+    public Serializable decode(byte[] bytes) throws ClassNotFoundException, IOException {
+        if (bytes.length == 0) {
+            throw new StreamCorruptedException("No header.");
+        }
+        int header = bytes[0];
+        InputStream in = new ByteArrayInputStream(bytes);
+        if (bytes[0] == STREAM_MAGIC_HEADER) {
+            header = SERIALIZED;
+        } else {
+            in.skip(1);
+            if ((header & COMPRESSED) != 0) {
+                in = new InflaterInputStream(in);
+            }
+        }
+
+        try (InputStream din = in) {
+            switch (header & ~COMPRESSED) {
+                case SERIALIZED:
+                    return ObjectUtils.unmarshal(din);
+                case TYPED:
+                    DataInputStream dataIn = new DataInputStream(din);
+                    String className = dataIn.readUTF();
+                    TypeCodec<?> typeCodec = typeCodecNameMap.get(className);
+                    if (typeCodec == null) {
+                        throw new ClassNotFoundException(
+                                "No type codec is registered for " + className + ".");
+                    }
+                    return typeCodec.read(dataIn);
+                default:
+                    throw new StreamCorruptedException("Unknown header " + header + ".");
+            }
+        }
+    }
+
+    // Returns null if the compressed bytes would not be smaller.
+    private static byte[] compress(byte[] bytes, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes, 1, length - 1);
+            deflater.finish();
+            byte[] compressedBytes = new byte[length - 1];
+            int compressedLength = 1;
+            while (!deflater.finished() && compressedLength < compressedBytes.length) {
+                compressedLength += deflater.deflate(compressedBytes,
+                        compressedLength, compressedBytes.length - compressedLength);
+            }
+            return deflater.finished()
+                    ? Arrays.copyOf(compressedBytes, compressedLength) : null;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Encodes and decodes objects of a specific class in a compact form.
+     *
+     * @param <T> The type of the encoded objects.
+     */
+    public interface TypeCodec<T extends Serializable> {
+        /**
+         * Writes an object.
+         *
+         * @param object The object to be written, never {@code null}.
+         * @param out The output to which the object is written.
+         * @throws IOException If an I/O error occurs.
+         */
+        void write(T object, DataOutput out) throws IOException;
+
+        /**
+         * Reads an object.
+         *
+         * @param in The input from which the object is read.
+         * @return The object.
+         * @throws IOException If an I/O error occurs.
+         */
+        T read(DataInput in) throws IOException;
+    }
+}
@@ -16,8 +16,16 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * A converter is used for string-to-object and object-to-string conversions.
+ * <p>
+ * Besides strings, a converter can parse a region of a character sequence and
+ * append literal values to an {@link Appendable}, so that many values can be
+ * read from or written to a large text without allocating a string for each
+ * of them. The default implementations of these methods delegate to the string
+ * based methods, and the built-in converters override them where possible.
  *
  * @param <T> The object type supported by this converter.
  *
@@ -39,4 +47,31 @@ public interface Converter<T> {
      * @return The literal representation of the object.
      */
     String asString(T object);
+
+    /**
+     * Converts a region of a character sequence to an object.
+     *
+     * @param source The character sequence containing the literal value.
+     * @param start The start index of the literal value, inclusive.
+     * @param end The end index of the literal value, exclusive.
+     * @return An object represented by the literal value.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    default T asObject(CharSequence source, int start, int end) {
+        return asObject(source.subSequence(start, end).toString());
+    }
+
+    /**
+     * Appends the literal representation of an object to an appendable.
+     *
+     * @param <A> The type of the appendable.
+     * @param out The appendable to which the literal value is appended.
+     * @param object The object to be converted.
+     * @return The appendable.
+     * @throws IOException If an I/O error occurs.
+     */
+    default <A extends Appendable> A appendTo(A out, T object) throws IOException {
+        out.append(asString(object));
+        return out;
+    }
 }
@@ -16,14 +16,32 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.lang.reflect.Array;
 import java.net.InetAddress;
 import java.net.URI;
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import zhyi.zse.lang.ClassCache;
 import zhyi.zse.lang.ReflectionUtils;
 
 /**
@@ -40,21 +58,49 @@ import zhyi.zse.lang.ReflectionUtils;
  * <li>{@code float} and its wrapper class {@link Float}.
  * <li>{@code double} and its wrapper class {@link Double}.
  * <li>{@link String}.
- * <li>{@link Date}.
+ * <li>{@link Date}, whose literal value is the number of milliseconds since
+ * the epoch.
+ * <li>{@link Instant}, {@link LocalDate}, {@link LocalDateTime} and {@link
+ * ZonedDateTime}, whose literal values are in ISO-8601 formats. Other formats
+ * can be registered for these types and {@link Date} with {@link
+ * #registerDateTimeFormat(Class, String)}.
+ * <li>{@link Duration}, whose literal value is in ISO-8601 format.
  * <li>{@link Locale}.
  * <li>{@link URL}.
  * <li>{@link URI}.
- * <li>{@link InetAddress}.
+ * <li>{@link InetAddress}. Host names are resolved, unless an {@link
+ * InetAddressConverter} that does not resolve host names is registered.
  * <li>Enumeration types. Converters for these types are automatically
- * registered in method {@link #getConverter(Class)}.
+ * created in method {@link #getConverter(Class)}.
  * <li>{@link Serializable}. The literal value of a serializable object is
- * the BASE-64 representation of its serialized bytes.
+ * the BASE-64 representation of the bytes encoded by the {@linkplain
+ * #setSerializableCodec serializable codec}.
  * </ul>
  * For most of the above types, the literal value of {@code null} is an empty
  * string, except that for {@link String} type, {@code null} is represented by
  * a special string {@code "**null**"}, and for {@link Serializable} type,
  * {@code null} is still represented by the BASE-64 representation of its
- * serialized bytes.
+ * encoded bytes.
+ * <p>
+ * Converted {@link Locale}, {@link URL}, {@link URI} and literal {@link
+ * InetAddress} objects are cached by their literal values, so converting them
+ * repeatedly neither allocates nor touches the network.
+ * <p>
+ * If no converter is registered for a class, the converter registered for its
+ * nearest superclass or superinterface is used, so for example any serializable
+ * class is supported by the converter for {@link Serializable}. Resolved
+ * converters, as well as the absence of them, are cached per class until
+ * converters are registered or deregistered.
+ * <p>
+ * Columns of values can be converted at once with {@link #convertAll(Class,
+ * List)} and similar methods, which convert inputs at least as large as the
+ * {@linkplain #setParallelThreshold parallel threshold} in parallel with the
+ * common fork-join pool.
+ * <p>
+ * The default converters for {@code int}, {@code long}, {@code double} and
+ * {@code boolean} are {@link PrimitiveConverter}s, which can be obtained by
+ * {@link #getIntConverter()} and similar methods to convert primitive values
+ * without boxing.
  *
  * @author Zhao Yi
  */
@@ -69,13 +115,24 @@ public class ConverterManager {
     private static final Converter<Double> DOUBLE_CONVERTER = new DoubleConverter();
     private static final Converter<String> STRING_CONVERTER = new StringConverter();
     private static final Converter<Date> DATE_CONVERTER = new DateConverter();
+    private static final Converter<Instant> INSTANT_CONVERTER = DateTimeConverter.create(
+            Instant.class, DateTimeFormatter.ISO_INSTANT);
+    private static final Converter<LocalDate> LOCAL_DATE_CONVERTER = DateTimeConverter.create(
+            LocalDate.class, DateTimeFormatter.ISO_LOCAL_DATE);
+    private static final Converter<LocalDateTime> LOCAL_DATE_TIME_CONVERTER = DateTimeConverter.create(
+            LocalDateTime.class, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    private static final Converter<ZonedDateTime> ZONED_DATE_TIME_CONVERTER = DateTimeConverter.create(
+            ZonedDateTime.class, DateTimeFormatter.ISO_ZONED_DATE_TIME);
+    private static final Converter<Duration> DURATION_CONVERTER = new DurationConverter();
     private static final Converter<Locale> LOCALE_CONVERTER = new LocaleConverter();
     private static final Converter<URL> URL_CONVERTER = new UrlConverter();
     private static final Converter<URI> URI_CONVERTER = new UriConverter();
     private static final Converter<InetAddress> INET_ADDRESS_CONVERTER = new InetAddressConverter();
-    private static final Converter<Serializable> SERIALIZABLE_CONVERTER = new SerializableConverter();
 
     private ConcurrentMap<Class<?>, Converter<?>> converterMap = new ConcurrentHashMap<>();
+    private volatile ClassCache<Converter<?>> resolutionCache = newResolutionCache();
+    private volatile int parallelThreshold = Integer.MAX_VALUE;
+    private volatile SerializableCodec serializableCodec;
 
     /**
      * Constructs a new converter manager.
@@ -91,11 +148,16 @@ public class ConverterManager {
         converterMap.put(Double.class, DOUBLE_CONVERTER);
         converterMap.put(String.class, STRING_CONVERTER);
         converterMap.put(Date.class, DATE_CONVERTER);
+        converterMap.put(Instant.class, INSTANT_CONVERTER);
+        converterMap.put(LocalDate.class, LOCAL_DATE_CONVERTER);
+        converterMap.put(LocalDateTime.class, LOCAL_DATE_TIME_CONVERTER);
+        converterMap.put(ZonedDateTime.class, ZONED_DATE_TIME_CONVERTER);
+        converterMap.put(Duration.class, DURATION_CONVERTER);
         converterMap.put(Locale.class, LOCALE_CONVERTER);
         converterMap.put(URL.class, URL_CONVERTER);
         converterMap.put(URI.class, URI_CONVERTER);
         converterMap.put(InetAddress.class, INET_ADDRESS_CONVERTER);
-        converterMap.put(Serializable.class, SERIALIZABLE_CONVERTER);
+        setSerializableCodec(new CompactSerializableCodec());
     }
 
     /**
@@ -108,6 +170,7 @@ public class ConverterManager {
      */
     public <T> void register(Class<T> targetClass, Converter<T> converter) {
         converterMap.put(ReflectionUtils.wrap(targetClass), converter);
+        resolutionCache = newResolutionCache();
     }
 
     /**
@@ -117,12 +180,56 @@ public class ConverterManager {
      * @param forClass The target class of the converter to be removed.
      */
     public <T> void deregister(Class<T> forClass) {
-        converterMap.remove(forClass);
+        converterMap.remove(ReflectionUtils.wrap(forClass));
+        resolutionCache = newResolutionCache();
+    }
+
+    /**
+     * Registers a converter for a date-time class that uses the specified
+     * pattern. Formatters are compiled once per pattern and shared.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The date-time class, which must be {@link Date},
+     *        {@link Instant}, {@link LocalDate}, {@link LocalDateTime} or
+     *        {@link ZonedDateTime}.
+     * @param pattern The pattern as described in {@link DateTimeFormatter}.
+     *        For {@link Date} and {@link Instant}, values are formatted in UTC
+     *        unless the pattern contains a zone.
+     * @throws IllegalArgumentException If the class is not supported, or the
+     *         pattern is invalid.
+     */
+    public <T> void registerDateTimeFormat(Class<T> targetClass, String pattern) {
+        registerDateTimeFormatter(targetClass, DateTimeConverter.ofPattern(pattern));
+    }
+
+    /**
+     * Registers a converter for a date-time class that uses the specified
+     * formatter.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The date-time class, which must be {@link Date},
+     *        {@link Instant}, {@link LocalDate}, {@link LocalDateTime} or
+     *        {@link ZonedDateTime}.
+     * @param formatter The formatter. For {@link Date} and {@link Instant},
+     *        UTC is used if the formatter has no zone.
+     * @throws IllegalArgumentException If the class is not supported.
+     */
+    public <T> void registerDateTimeFormatter(
+            Class<T> targetClass, DateTimeFormatter formatter) {
+        Converter<T> converter = DateTimeConverter.create(targetClass, formatter);
+        if (converter == null) {
+            throw new IllegalArgumentException(
+                    targetClass + " is not a supported date-time class.");
+        }
+        register(targetClass, converter);
     }
 
     /**
-     * Returns the registered converter for the specified class. If the target
-     * class is an {@code enum}, a converter will be automatically registered.
+     * Returns the converter for the specified class. If no converter is
+     * registered for the class, a converter is created if the class is an
+     * {@code enum}, or otherwise the converter registered for the nearest
+     * superclass or superinterface is returned, which checks that converted
+     * objects are instances of the specified class.
      *
      * @param <T> The type modeled by the target class.
      * @param targetClass The target class of the converter.
@@ -131,17 +238,526 @@ public class ConverterManager {
      */
     @SuppressWarnings("unchecked")
     public <T> Converter<T> getConverter(Class<T> targetClass) {
-        Converter<T> converter = (Converter<T>) converterMap.get(
-                ReflectionUtils.wrap(targetClass));
-        if (converter == null && targetClass.isEnum()) {
-            Converter<T> enumConverter = (Converter<T>) new EnumConverter<>(
-                    targetClass.asSubclass(Enum.class));
-            converter = (Converter<T>) converterMap.putIfAbsent(
-                    targetClass, enumConverter);
-            if (converter == null) {
-                converter = enumConverter;
+        return (Converter<T>) resolutionCache.get(targetClass);
+    }
+
+    /**
+     * Returns the converter for the specified class, optionally excluding
+     * converters registered for superclasses and superinterfaces.
+     * <p>
+     * An inherited converter, such as the one for {@link Serializable}, may
+     * convert literal values to objects that are not instances of the target
+     * class, so callers that need to know in advance whether a class can be
+     * converted should not accept inherited converters.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The target class of the converter.
+     * @param inherited Whether a converter registered for a superclass or
+     *        superinterface may be returned.
+     * @return The desired converter, or {@code null} if no such converter
+     *         is found.
+     */
+    public <T> Converter<T> getConverter(Class<T> targetClass, boolean inherited) {
+        Converter<T> converter = getConverter(targetClass);
+        return inherited || !(converter instanceof InheritedConverter) ? converter : null;
+    }
+
+    /**
+     * Returns the converter for {@code int} values. If the registered converter
+     * for {@link Integer} is not a {@link PrimitiveConverter.OfInt}, it is
+     * adapted with boxing.
+     *
+     * @return The converter for {@code int} values.
+     * @throws IllegalStateException If no converter is registered for
+     *         {@link Integer}.
+     */
+    public PrimitiveConverter.OfInt getIntConverter() {
+        Converter<Integer> converter = getRequiredConverter(Integer.class);
+        return converter instanceof PrimitiveConverter.OfInt
+                ? (PrimitiveConverter.OfInt) converter : new IntAdapter(converter);
+    }
+
+    /**
+     * Returns the converter for {@code long} values. If the registered converter
+     * for {@link Long} is not a {@link PrimitiveConverter.OfLong}, it is adapted
+     * with boxing.
+     *
+     * @return The converter for {@code long} values.
+     * @throws IllegalStateException If no converter is registered for
+     *         {@link Long}.
+     */
+    public PrimitiveConverter.OfLong getLongConverter() {
+        Converter<Long> converter = getRequiredConverter(Long.class);
+        return converter instanceof PrimitiveConverter.OfLong
+                ? (PrimitiveConverter.OfLong) converter : new LongAdapter(converter);
+    }
+
+    /**
+     * Returns the converter for {@code double} values. If the registered
+     * converter for {@link Double} is not a {@link PrimitiveConverter.OfDouble},
+     * it is adapted with boxing.
+     *
+     * @return The converter for {@code double} values.
+     * @throws IllegalStateException If no converter is registered for
+     *         {@link Double}.
+     */
+    public PrimitiveConverter.OfDouble getDoubleConverter() {
+        Converter<Double> converter = getRequiredConverter(Double.class);
+        return converter instanceof PrimitiveConverter.OfDouble
+                ? (PrimitiveConverter.OfDouble) converter : new DoubleAdapter(converter);
+    }
+
+    /**
+     * Returns the converter for {@code boolean} values. If the registered
+     * converter for {@link Boolean} is not a {@link PrimitiveConverter.OfBoolean},
+     * it is adapted with boxing.
+     *
+     * @return The converter for {@code boolean} values.
+     * @throws IllegalStateException If no converter is registered for
+     *         {@link Boolean}.
+     */
+    public PrimitiveConverter.OfBoolean getBooleanConverter() {
+        Converter<Boolean> converter = getRequiredConverter(Boolean.class);
+        return converter instanceof PrimitiveConverter.OfBoolean
+                ? (PrimitiveConverter.OfBoolean) converter : new BooleanAdapter(converter);
+    }
+
+    /**
+     * Returns the codec used by the converter for {@link Serializable}.
+     *
+     * @return The serializable codec.
+     */
+    public SerializableCodec getSerializableCodec() {
+        return serializableCodec;
+    }
+
+    /**
+     * Sets the codec used by the converter for {@link Serializable}, which
+     * replaces any converter registered for {@link Serializable}. By default
+     * a {@link CompactSerializableCodec} is used.
+     *
+     * @param serializableCodec The serializable codec.
+     */
+    public void setSerializableCodec(SerializableCodec serializableCodec) {
+        this.serializableCodec = serializableCodec;
+        register(Serializable.class, new SerializableConverter(serializableCodec));
+    }
+
+    /**
+     * Returns the minimum number of values that are converted in parallel by
+     * the batch conversion methods.
+     *
+     * @return The parallel threshold.
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum number of values that are converted in parallel by the
+     * batch conversion methods. The default threshold is {@link
+     * Integer#MAX_VALUE}, which means values are always converted in the
+     * calling thread.
+     *
+     * @param parallelThreshold The parallel threshold.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Converts a list of literal values to objects with the converter for the
+     * specified class.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The target class of the converter.
+     * @param literalValues The literal values to be converted.
+     * @return A fixed-size list of the converted objects.
+     * @throws IllegalStateException If no converter is found.
+     */
+    public <T> List<T> convertAll(Class<T> targetClass, List<String> literalValues) {
+        return Arrays.asList(convertAll(targetClass,
+                literalValues.toArray(new String[literalValues.size()])));
+    }
+
+    /**
+     * Converts an array of literal values to objects with the converter for
+     * the specified class. If the class is primitive, the returned array's
+     * component type is its wrapper class.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The target class of the converter.
+     * @param literalValues The literal values to be converted.
+     * @return An array of the converted objects.
+     * @throws IllegalStateException If no converter is found.
+     */
+    public <T> T[] convertAll(Class<T> targetClass, final String[] literalValues) {
+        final Converter<T> converter = getRequiredConverter(targetClass);
+        @SuppressWarnings("unchecked")
+        final T[] objects = (T[]) Array.newInstance(
+                ReflectionUtils.wrap(targetClass), literalValues.length);
+        run(literalValues.length, new Batch() {
+            @Override
+            public void convert(int index) {
+                objects[index] = converter.asObject(literalValues[index]);
+            }
+        });
+        return objects;
+    }
+
+    /**
+     * Converts a list of objects to literal values with the converter for the
+     * specified class.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The target class of the converter.
+     * @param objects The objects to be converted.
+     * @return A fixed-size list of the literal values.
+     * @throws IllegalStateException If no converter is found.
+     */
+    public <T> List<String> convertAllToStrings(
+            Class<T> targetClass, List<? extends T> objects) {
+        @SuppressWarnings("unchecked")
+        T[] array = (T[]) objects.toArray();
+        return Arrays.asList(convertAllToStrings(targetClass, array));
+    }
+
+    /**
+     * Converts an array of objects to literal values with the converter for
+     * the specified class.
+     *
+     * @param <T> The type modeled by the target class.
+     * @param targetClass The target class of the converter.
+     * @param objects The objects to be converted.
+     * @return An array of the literal values.
+     * @throws IllegalStateException If no converter is found.
+     */
+    public <T> String[] convertAllToStrings(Class<T> targetClass, final T[] objects) {
+        final Converter<T> converter = getRequiredConverter(targetClass);
+        final String[] literalValues = new String[objects.length];
+        run(objects.length, new Batch() {
+            @Override
+            public void convert(int index) {
+                literalValues[index] = converter.asString(objects[index]);
+            }
+        });
+        return literalValues;
+    }
+
+    /**
+     * Converts a list of literal values to {@code int} values without boxing.
+     *
+     * @param literalValues The literal values to be converted, none of which
+     *        may be empty.
+     * @return An array of the converted values.
+     * @throws NumberFormatException If a literal value is malformed.
+     */
+    public int[] convertAllToInts(List<String> literalValues) {
+        final PrimitiveConverter.OfInt converter = getIntConverter();
+        final String[] values = literalValues.toArray(new String[literalValues.size()]);
+        final int[] ints = new int[values.length];
+        run(values.length, new Batch() {
+            @Override
+            public void convert(int index) {
+                ints[index] = converter.parseInt(values[index]);
+            }
+        });
+        return ints;
+    }
+
+    /**
+     * Converts a list of literal values to {@code long} values without boxing.
+     *
+     * @param literalValues The literal values to be converted, none of which
+     *        may be empty.
+     * @return An array of the converted values.
+     * @throws NumberFormatException If a literal value is malformed.
+     */
+    public long[] convertAllToLongs(List<String> literalValues) {
+        final PrimitiveConverter.OfLong converter = getLongConverter();
+        final String[] values = literalValues.toArray(new String[literalValues.size()]);
+        final long[] longs = new long[values.length];
+        run(values.length, new Batch() {
+            @Override
+            public void convert(int index) {
+                longs[index] = converter.parseLong(values[index]);
+            }
+        });
+        return longs;
+    }
+
+    /**
+     * Converts a list of literal values to {@code double} values without
+     * boxing.
+     *
+     * @param literalValues The literal values to be converted, none of which
+     *        may be empty.
+     * @return An array of the converted values.
+     * @throws NumberFormatException If a literal value is malformed.
+     */
+    public double[] convertAllToDoubles(List<String> literalValues) {
+        final PrimitiveConverter.OfDouble converter = getDoubleConverter();
+        final String[] values = literalValues.toArray(new String[literalValues.size()]);
+        final double[] doubles = new double[values.length];
+        run(values.length, new Batch() {
+            @Override
+            public void convert(int index) {
+                doubles[index] = converter.parseDouble(values[index]);
+            }
+        });
+        return doubles;
+    }
+
+    private void run(int size, Batch batch) {
+        if (size >= parallelThreshold && size > 1) {
+            int grain = Math.max(
+                    size / (ForkJoinPool.getCommonPoolParallelism() * 4), 1);
+            ForkJoinPool.commonPool().invoke(new BatchTask(batch, 0, size, grain));
+        } else {
+            for (int i = 0; i < size; i++) {
+                batch.convert(i);
             }
         }
+    }
+
+    private ClassCache<Converter<?>> newResolutionCache() {
+        return new ClassCache<Converter<?>>() {
+            @Override
+            protected Converter<?> computeValue(Class<?> c) {
+                return resolve(c);
+            }
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Converter<?> resolve(Class<?> targetClass) {
+        Class<?> wrapperClass = ReflectionUtils.wrap(targetClass);
+        Converter<?> converter = converterMap.get(wrapperClass);
+        if (converter != null) {
+            return converter;
+        }
+        if (wrapperClass.isEnum()) {
+            return new EnumConverter(wrapperClass.asSubclass(Enum.class));
+        }
+
+        // Superclasses are preferred to interfaces, and Object comes last.
+        Queue<Class<?>> interfaceQueue = new ArrayDeque<>();
+        for (Class<?> c = wrapperClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (c != wrapperClass && (converter = converterMap.get(c)) != null) {
+                return new InheritedConverter(wrapperClass, converter);
+            }
+            Collections.addAll(interfaceQueue, c.getInterfaces());
+        }
+        Set<Class<?>> visitedInterfaces = new HashSet<>();
+        Class<?> i;
+        while ((i = interfaceQueue.poll()) != null) {
+            if (visitedInterfaces.add(i)) {
+                if ((converter = converterMap.get(i)) != null) {
+                    return new InheritedConverter(wrapperClass, converter);
+                }
+                Collections.addAll(interfaceQueue, i.getInterfaces());
+            }
+        }
+        converter = converterMap.get(Object.class);
+        return converter == null ? null : new InheritedConverter(wrapperClass, converter);
+    }
+
+    private <T> Converter<T> getRequiredConverter(Class<T> targetClass) {
+        Converter<T> converter = getConverter(targetClass);
+        if (converter == null) {
+            throw new IllegalStateException(
+                    "No converter is registered for " + targetClass + ".");
+        }
         return converter;
     }
+
+    /**
+     * Converts the element at an index of a batch.
+     */
+    private interface Batch {
+        void convert(int index);
+    }
+
+    /**
+     * Converts a range of a batch, splitting it until it is not larger than
+     * the grain size.
+     */
+    @SuppressWarnings("serial")
+    private static class BatchTask extends RecursiveAction {
+        private Batch batch;
+        private int from;
+        private int to;
+        private int grain;
+
+        private BatchTask(Batch batch, int from, int to, int grain) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                for (int i = from; i < to; i++) {
+                    batch.convert(i);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BatchTask(batch, from, middle, grain),
+                        new BatchTask(batch, middle, to, grain));
+            }
+        }
+    }
+
+    /**
+     * Uses a converter registered for a supertype to convert objects of
+     * a subtype.
+     */
+    private static class InheritedConverter<T> implements Converter<T> {
+        private Class<T> targetClass;
+        private Converter<? super T> converter;
+
+        private InheritedConverter(Class<T> targetClass, Converter<? super T> converter) {
+            this.targetClass = targetClass;
+            this.converter = converter;
+        }
+
+        @Override
+        public T asObject(String literalValue) {
+            return cast(converter.asObject(literalValue));
+        }
+
+        @Override
+        public String asString(T object) {
+            return converter.asString(object);
+        }
+
+        @Override
+        public T asObject(CharSequence source, int start, int end) {
+            return cast(converter.asObject(source, start, end));
+        }
+
+        @Override
+        public <A extends Appendable> A appendTo(A out, T object) throws IOException {
+            return converter.appendTo(out, object);
+        }
+
+        private T cast(Object object) {
+            if (object != null && !targetClass.isInstance(object)) {
+                throw new IllegalArgumentException("The converted object of "
+                        + object.getClass() + " is not an instance of " + targetClass + ".");
+            }
+            return targetClass.cast(object);
+        }
+    }
+
+    /**
+     * Adapts a converter for a wrapper class to a primitive converter. A
+     * literal value that is converted to {@code null} is rejected.
+     */
+    private static abstract class Adapter<T> implements PrimitiveConverter<T> {
+        private Converter<T> converter;
+
+        private Adapter(Converter<T> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public T asObject(String literalValue) {
+            return converter.asObject(literalValue);
+        }
+
+        @Override
+        public String asString(T object) {
+            return converter.asString(object);
+        }
+
+        @Override
+        public T asObject(CharSequence source, int start, int end) {
+            return converter.asObject(source, start, end);
+        }
+
+        @Override
+        public <A extends Appendable> A appendTo(A out, T object) throws IOException {
+            return converter.appendTo(out, object);
+        }
+
+        T parse(CharSequence source, int start, int end) {
+            T value = converter.asObject(source, start, end);
+            if (value == null) {
+                throw new IllegalArgumentException("Literal value \""
+                        + source.subSequence(start, end) + "\" represents null.");
+            }
+            return value;
+        }
+    }
+
+    private static class IntAdapter extends Adapter<Integer>
+            implements PrimitiveConverter.OfInt {
+        private IntAdapter(Converter<Integer> converter) {
+            super(converter);
+        }
+
+        @Override
+        public int parseInt(CharSequence source, int start, int end) {
+            return parse(source, start, end);
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb, int value) {
+            return sb.append(asString(value));
+        }
+    }
+
+    private static class LongAdapter extends Adapter<Long>
+            implements PrimitiveConverter.OfLong {
+        private LongAdapter(Converter<Long> converter) {
+            super(converter);
+        }
+
+        @Override
+        public long parseLong(CharSequence source, int start, int end) {
+            return parse(source, start, end);
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb, long value) {
+            return sb.append(asString(value));
+        }
+    }
+
+    private static class DoubleAdapter extends Adapter<Double>
+            implements PrimitiveConverter.OfDouble {
+        private DoubleAdapter(Converter<Double> converter) {
+            super(converter);
+        }
+
+        @Override
+        public double parseDouble(CharSequence source, int start, int end) {
+            return parse(source, start, end);
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb, double value) {
+            return sb.append(asString(value));
+        }
+    }
+
+    private static class BooleanAdapter extends Adapter<Boolean>
+            implements PrimitiveConverter.OfBoolean {
+        private BooleanAdapter(Converter<Boolean> converter) {
+            super(converter);
+        }
+
+        @Override
+        public boolean parseBoolean(CharSequence source, int start, int end) {
+            return parse(source, start, end);
+        }
+
+        @Override
+        public StringBuilder appendTo(StringBuilder sb, boolean value) {
+            return sb.append(asString(value));
+        }
+    }
 }
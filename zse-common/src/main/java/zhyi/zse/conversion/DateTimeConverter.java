@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Converts date-time objects with a {@link DateTimeFormatter}. Regions of
+ * character sequences are parsed through {@link CharBuffer} views, and literal
+ * values are formatted directly to appendables.
+ *
+ * @param <T> The date-time type.
+ *
+ * @author Zhao Yi
+ */
+abstract class DateTimeConverter<T> extends AbstractConverter<T> {
+    private static final ConcurrentMap<String, DateTimeFormatter>
+            FORMATTER_CACHE = new ConcurrentHashMap<>();
+
+    private DateTimeFormatter formatter;
+
+    private DateTimeConverter(DateTimeFormatter formatter) {
+        this.formatter = formatter;
+    }
+
+    /**
+     * Creates a converter for the specified date-time type.
+     *
+     * @param type The date-time type, which must be {@link Date}, {@link
+     *        Instant}, {@link LocalDate}, {@link LocalDateTime} or {@link
+     *        ZonedDateTime}.
+     * @param formatter The formatter. For {@link Date} and {@link Instant},
+     *        UTC is used if the formatter has no zone.
+     * @return The converter, or {@code null} if the type is not supported.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> DateTimeConverter<T> create(Class<T> type, DateTimeFormatter formatter) {
+        if (type == Date.class || type == Instant.class) {
+            if (formatter.getZone() == null) {
+                formatter = formatter.withZone(ZoneOffset.UTC);
+            }
+        }
+        DateTimeConverter<?> converter;
+        if (type == Date.class) {
+            converter = new DateTimeConverter<Date>(formatter) {
+                @Override
+                Date fromTemporal(TemporalAccessor temporal) {
+                    return Date.from(Instant.from(temporal));
+                }
+
+                @Override
+                TemporalAccessor toTemporal(Date object) {
+                    return object.toInstant();
+                }
+            };
+        } else if (type == Instant.class) {
+            converter = new DateTimeConverter<Instant>(formatter) {
+                @Override
+                Instant fromTemporal(TemporalAccessor temporal) {
+                    return Instant.from(temporal);
+                }
+            };
+        } else if (type == LocalDate.class) {
+            converter = new DateTimeConverter<LocalDate>(formatter) {
+                @Override
+                LocalDate fromTemporal(TemporalAccessor temporal) {
+                    return LocalDate.from(temporal);
+                }
+            };
+        } else if (type == LocalDateTime.class) {
+            converter = new DateTimeConverter<LocalDateTime>(formatter) {
+                @Override
+                LocalDateTime fromTemporal(TemporalAccessor temporal) {
+                    return LocalDateTime.from(temporal);
+                }
+            };
+        } else if (type == ZonedDateTime.class) {
+            converter = new DateTimeConverter<ZonedDateTime>(formatter) {
+                @Override
+                ZonedDateTime fromTemporal(TemporalAccessor temporal) {
+                    return ZonedDateTime.from(temporal);
+                }
+            };
+        } else {
+            converter = null;
+        }
+        return (DateTimeConverter<T>) converter;
+    }
+
+    /**
+     * Returns the formatter for the specified pattern. Formatters are compiled
+     * once per pattern and cached.
+     *
+     * @param pattern The pattern.
+     * @return The formatter.
+     * @throws IllegalArgumentException If the pattern is invalid.
+     */
+    static DateTimeFormatter ofPattern(String pattern) {
+        DateTimeFormatter formatter = FORMATTER_CACHE.get(pattern);
+        if (formatter == null) {
+            formatter = DateTimeFormatter.ofPattern(pattern);
+            FORMATTER_CACHE.putIfAbsent(pattern, formatter);
+        }
+        return formatter;
+    }
+
+    @Override
+    protected T asObjectInternal(String literalValue) {
+        return fromTemporal(formatter.parse(literalValue));
+    }
+
+    @Override
+    protected String asStringInternal(T object) {
+        return formatter.format(toTemporal(object));
+    }
+
+    @Override
+    protected T asObjectInternal(CharSequence source, int start, int end) {
+        return fromTemporal(formatter.parse(CharBuffer.wrap(source, start, end)));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, T object) throws IOException {
+        formatter.formatTo(toTemporal(object), out);
+    }
+
+    abstract T fromTemporal(TemporalAccessor temporal);
+
+    TemporalAccessor toTemporal(T object) {
+        return (TemporalAccessor) object;
+    }
+}
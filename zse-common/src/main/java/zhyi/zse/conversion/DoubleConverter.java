@@ -16,10 +16,13 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
-class DoubleConverter extends AbstractConverter<Double> {
+class DoubleConverter extends AbstractConverter<Double>
+        implements PrimitiveConverter.OfDouble {
     @Override
     public Double asObjectInternal(String literalValue) {
         return Double.valueOf(literalValue);
@@ -29,4 +32,24 @@ class DoubleConverter extends AbstractConverter<Double> {
     public String asStringInternal(Double object) {
         return object.toString();
     }
+
+    @Override
+    protected void appendInternal(Appendable out, Double object) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(object.doubleValue());
+        } else {
+            out.append(object.toString());
+        }
+    }
+
+    @Override
+    public double parseDouble(CharSequence source, int start, int end) {
+        // The floating-point syntax is too complex to be parsed in place.
+        return Double.parseDouble(source.subSequence(start, end).toString());
+    }
+
+    @Override
+    public StringBuilder appendTo(StringBuilder sb, double value) {
+        return sb.append(value);
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion;
+
+import java.nio.CharBuffer;
+import java.time.Duration;
+
+/**
+ * @author Zhao Yi
+ */
+class DurationConverter extends AbstractConverter<Duration> {
+    @Override
+    protected Duration asObjectInternal(String literalValue) {
+        return Duration.parse(literalValue);
+    }
+
+    @Override
+    protected String asStringInternal(Duration object) {
+        return object.toString();
+    }
+
+    @Override
+    protected Duration asObjectInternal(CharSequence source, int start, int end) {
+        return Duration.parse(CharBuffer.wrap(source, start, end));
+    }
+}
@@ -16,14 +16,18 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
 class EnumConverter<T extends Enum<T>> extends AbstractConverter<T> {
     private Class<T> enumClass;
+    private T[] constants;
 
     EnumConverter(Class<T> enumClass) {
         this.enumClass = enumClass;
+        constants = enumClass.getEnumConstants();
     }
 
     @Override
@@ -35,4 +39,33 @@ class EnumConverter<T extends Enum<T>> extends AbstractConverter<T> {
     protected String asStringInternal(T object) {
         return object.name();
     }
+
+    @Override
+    protected T asObjectInternal(CharSequence source, int start, int end) {
+        for (T constant : constants) {
+            if (regionEquals(constant.name(), source, start, end)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + enumClass.getCanonicalName()
+                + "." + source.subSequence(start, end));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, T object) throws IOException {
+        out.append(object.name());
+    }
+
+    private static boolean regionEquals(String name,
+            CharSequence source, int start, int end) {
+        if (name.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
@@ -18,22 +18,207 @@ package zhyi.zse.conversion;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import zhyi.zse.lang.LiteralCache;
 
 /**
+ * Converts IP addresses. Literal IP addresses, including IPv6 addresses that
+ * are enclosed in square brackets or have scope IDs, are parsed without name
+ * resolution and cached by their literal values. Host names are resolved
+ * with {@link InetAddress#getByName(String)}, unless name resolution is
+ * disabled, in which case they are rejected.
+ *
  * @author Zhao Yi
  */
 public class InetAddressConverter extends AbstractConverter<InetAddress> {
+    private boolean resolving;
+    private LiteralCache<InetAddress> cache = new LiteralCache<>();
+
+    /**
+     * Constructs a new converter that resolves host names.
+     */
+    public InetAddressConverter() {
+        this(true);
+    }
+
+    /**
+     * Constructs a new converter.
+     *
+     * @param resolving Whether host names are resolved. If {@code false},
+     *        only literal IP addresses are accepted, and conversions never
+     *        block on name resolution.
+     */
+    public InetAddressConverter(boolean resolving) {
+        this.resolving = resolving;
+    }
+
+    /**
+     * Returns whether host names are resolved.
+     *
+     * @return {@code true} if host names are resolved, otherwise {@code false}.
+     */
+    public boolean isResolving() {
+        return resolving;
+    }
+
     @Override
     protected InetAddress asObjectInternal(String literalValue) {
+        InetAddress address = cache.get(literalValue);
+        if (address != null) {
+            return address;
+        }
+
+        byte[] ipv4Address = parseIpv4Address(literalValue);
         try {
-            return InetAddress.getByName(literalValue);
+            if (ipv4Address != null) {
+                address = InetAddress.getByAddress(ipv4Address);
+            } else {
+                String host = literalValue;
+                int length = host.length();
+                if (length > 2 && host.charAt(0) == '[' && host.charAt(length - 1) == ']') {
+                    host = host.substring(1, length - 1);
+                }
+                int percent = host.indexOf('%');
+                byte[] ipv6Address = parseIpv6Address(
+                        percent == -1 ? host : host.substring(0, percent));
+                if (ipv6Address != null) {
+                    // A valid IPv6 literal with a scope ID is parsed by
+                    // InetAddress without name resolution as well.
+                    address = percent == -1 ? InetAddress.getByAddress(ipv6Address)
+                            : InetAddress.getByName(host);
+                } else if (resolving) {
+                    return InetAddress.getByName(literalValue);
+                } else {
+                    throw new IllegalArgumentException("Host name " + literalValue
+                            + " cannot be converted without name resolution.");
+                }
+            }
         } catch (UnknownHostException ex) {
             throw new RuntimeException(ex);
         }
+        cache.put(literalValue, address);
+        return address;
     }
 
     @Override
     protected String asStringInternal(InetAddress object) {
         return object.getHostAddress();
     }
+
+    // Returns null if the literal value is not a dotted-decimal IPv4 address.
+    private static byte[] parseIpv4Address(String literalValue) {
+        byte[] address = new byte[4];
+        int length = literalValue.length();
+        int index = 0;
+        for (int i = 0; i < 4; i++) {
+            int value = 0;
+            int start = index;
+            while (index < length && index - start < 3) {
+                char c = literalValue.charAt(index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                value = value * 10 + c - '0';
+                index++;
+            }
+            if (index == start || value > 255) {
+                return null;
+            }
+            address[i] = (byte) value;
+            if (i < 3) {
+                if (index == length || literalValue.charAt(index) != '.') {
+                    return null;
+                }
+                index++;
+            }
+        }
+        return index == length ? address : null;
+    }
+
+    // Returns null if the literal value is not a textual IPv6 address, with
+    // optional "::" compression and an optional embedded IPv4 address.
+    private static byte[] parseIpv6Address(String literalValue) {
+        byte[] address = new byte[16];
+        int length = literalValue.length();
+        int groupCount = 0;
+        int compression = -1;
+        int index = 0;
+        if (literalValue.startsWith("::")) {
+            compression = 0;
+            index = 2;
+        } else if (length == 0 || literalValue.charAt(0) == ':') {
+            return null;
+        }
+
+        while (index < length) {
+            if (groupCount == 8) {
+                return null;
+            }
+            int colon = literalValue.indexOf(':', index);
+            int end = colon == -1 ? length : colon;
+            if (colon == -1 && literalValue.indexOf('.', index) >= 0) {
+                byte[] ipv4Address = groupCount > 6
+                        ? null : parseIpv4Address(literalValue.substring(index));
+                if (ipv4Address == null) {
+                    return null;
+                }
+                System.arraycopy(ipv4Address, 0, address, groupCount * 2, 4);
+                groupCount += 2;
+                break;
+            }
+
+            if (end == index || end - index > 4) {
+                return null;
+            }
+            int value = 0;
+            for (int i = index; i < end; i++) {
+                int digit = hexDigit(literalValue.charAt(i));
+                if (digit == -1) {
+                    return null;
+                }
+                value = value << 4 | digit;
+            }
+            address[groupCount * 2] = (byte) (value >>> 8);
+            address[groupCount * 2 + 1] = (byte) value;
+            groupCount++;
+            if (end == length) {
+                break;
+            }
+
+            index = end + 1;
+            if (index == length) {
+                return null;
+            }
+            if (literalValue.charAt(index) == ':') {
+                if (compression != -1) {
+                    return null;
+                }
+                compression = groupCount;
+                index++;
+            }
+        }
+
+        if (compression == -1) {
+            return groupCount == 8 ? address : null;
+        }
+        if (groupCount == 8) {
+            return null;
+        }
+        int tailLength = (groupCount - compression) * 2;
+        System.arraycopy(address, compression * 2, address, 16 - tailLength, tailLength);
+        Arrays.fill(address, compression * 2, 16 - tailLength, (byte) 0);
+        return address;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        } else if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        } else if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        } else {
+            return -1;
+        }
+    }
 }
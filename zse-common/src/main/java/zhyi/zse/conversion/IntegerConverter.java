@@ -16,10 +16,13 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
-class IntegerConverter extends AbstractConverter<Integer> {
+class IntegerConverter extends AbstractConverter<Integer>
+        implements PrimitiveConverter.OfInt {
     @Override
     public Integer asObjectInternal(String literalValue) {
         return Integer.valueOf(literalValue);
@@ -29,4 +32,28 @@ class IntegerConverter extends AbstractConverter<Integer> {
     public String asStringInternal(Integer object) {
         return object.toString();
     }
+
+    @Override
+    protected Integer asObjectInternal(CharSequence source, int start, int end) {
+        return Integer.valueOf(parseInt(source, start, end));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Integer object) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(object.intValue());
+        } else {
+            out.append(object.toString());
+        }
+    }
+
+    @Override
+    public int parseInt(CharSequence source, int start, int end) {
+        return (int) LongConverter.parse(source, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public StringBuilder appendTo(StringBuilder sb, int value) {
+        return sb.append(value);
+    }
 }
@@ -17,14 +17,22 @@
 package zhyi.zse.conversion;
 
 import java.util.Locale;
+import zhyi.zse.lang.LiteralCache;
 
 /**
  * @author Zhao Yi
  */
 class LocaleConverter extends AbstractConverter<Locale> {
+    private LiteralCache<Locale> cache = new LiteralCache<>();
+
     @Override
     protected Locale asObjectInternal(String literalValue) {
-        return Locale.forLanguageTag(literalValue);
+        Locale locale = cache.get(literalValue);
+        if (locale == null) {
+            locale = Locale.forLanguageTag(literalValue);
+            cache.put(literalValue, locale);
+        }
+        return locale;
     }
 
     @Override
@@ -16,10 +16,13 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
-class LongConverter extends AbstractConverter<Long> {
+class LongConverter extends AbstractConverter<Long>
+        implements PrimitiveConverter.OfLong {
     @Override
     public Long asObjectInternal(String literalValue) {
         return Long.valueOf(literalValue);
@@ -29,4 +32,74 @@ class LongConverter extends AbstractConverter<Long> {
     public String asStringInternal(Long object) {
         return object.toString();
     }
+
+    @Override
+    protected Long asObjectInternal(CharSequence source, int start, int end) {
+        return Long.valueOf(parseLong(source, start, end));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Long object) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(object.longValue());
+        } else {
+            out.append(object.toString());
+        }
+    }
+
+    @Override
+    public long parseLong(CharSequence source, int start, int end) {
+        return parse(source, start, end, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public StringBuilder appendTo(StringBuilder sb, long value) {
+        return sb.append(value);
+    }
+
+    /**
+     * Parses a decimal integer within the specified range like {@link
+     * Long#parseLong(String)}, but without converting the literal value to
+     * a string first.
+     */
+    static long parse(CharSequence source, int start, int end, long min, long max) {
+        checkRegion(source, start, end);
+        int i = start;
+        boolean negative = false;
+        if (i < end) {
+            char first = source.charAt(i);
+            if (first == '-') {
+                negative = true;
+                i++;
+            } else if (first == '+') {
+                i++;
+            }
+        }
+        if (i == end) {
+            throw newNumberFormatException(source, start, end);
+        }
+
+        // Accumulate negatively, so that the minimum value can be parsed.
+        long limit = negative ? min : -max;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        while (i < end) {
+            int digit = Character.digit(source.charAt(i++), 10);
+            if (digit < 0 || result < multiplyLimit) {
+                throw newNumberFormatException(source, start, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw newNumberFormatException(source, start, end);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException newNumberFormatException(
+            CharSequence source, int start, int end) {
+        return new NumberFormatException(
+                "For input string: \"" + source.subSequence(start, end) + "\"");
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion;
+
+/**
+ * A converter that also converts primitive values directly, without boxing
+ * them or creating intermediate strings. Specializations are provided for
+ * {@code int}, {@code long}, {@code double} and {@code boolean} values.
+ * <p>
+ * Unlike {@link Converter#asObject(String)}, the primitive parsing methods
+ * do not accept an empty literal value, as there is no {@code null} value
+ * for primitive types.
+ *
+ * @param <T> The wrapper type supported by this converter.
+ *
+ * @author Zhao Yi
+ */
+public interface PrimitiveConverter<T> extends Converter<T> {
+    /**
+     * A converter specialized for {@code int} values.
+     */
+    interface OfInt extends PrimitiveConverter<Integer> {
+        /**
+         * Converts a literal value to an {@code int} value.
+         *
+         * @param literalValue The literal representation of the value.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         */
+        default int parseInt(CharSequence literalValue) {
+            return parseInt(literalValue, 0, literalValue.length());
+        }
+
+        /**
+         * Converts a region of a character sequence to an {@code int} value.
+         *
+         * @param source The character sequence containing the literal value.
+         * @param start The start index of the literal value, inclusive.
+         * @param end The end index of the literal value, exclusive.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         * @throws IndexOutOfBoundsException If the region is out of bounds.
+         */
+        int parseInt(CharSequence source, int start, int end);
+
+        /**
+         * Appends the literal representation of an {@code int} value to
+         * a string builder.
+         *
+         * @param sb The string builder to be appended.
+         * @param value The value to be converted.
+         * @return The string builder.
+         */
+        StringBuilder appendTo(StringBuilder sb, int value);
+    }
+
+    /**
+     * A converter specialized for {@code long} values.
+     */
+    interface OfLong extends PrimitiveConverter<Long> {
+        /**
+         * Converts a literal value to a {@code long} value.
+         *
+         * @param literalValue The literal representation of the value.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         */
+        default long parseLong(CharSequence literalValue) {
+            return parseLong(literalValue, 0, literalValue.length());
+        }
+
+        /**
+         * Converts a region of a character sequence to a {@code long} value.
+         *
+         * @param source The character sequence containing the literal value.
+         * @param start The start index of the literal value, inclusive.
+         * @param end The end index of the literal value, exclusive.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         * @throws IndexOutOfBoundsException If the region is out of bounds.
+         */
+        long parseLong(CharSequence source, int start, int end);
+
+        /**
+         * Appends the literal representation of a {@code long} value to
+         * a string builder.
+         *
+         * @param sb The string builder to be appended.
+         * @param value The value to be converted.
+         * @return The string builder.
+         */
+        StringBuilder appendTo(StringBuilder sb, long value);
+    }
+
+    /**
+     * A converter specialized for {@code double} values.
+     */
+    interface OfDouble extends PrimitiveConverter<Double> {
+        /**
+         * Converts a literal value to a {@code double} value.
+         *
+         * @param literalValue The literal representation of the value.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         */
+        default double parseDouble(CharSequence literalValue) {
+            return parseDouble(literalValue, 0, literalValue.length());
+        }
+
+        /**
+         * Converts a region of a character sequence to a {@code double} value.
+         *
+         * @param source The character sequence containing the literal value.
+         * @param start The start index of the literal value, inclusive.
+         * @param end The end index of the literal value, exclusive.
+         * @return The value represented by the literal value.
+         * @throws NumberFormatException If the literal value is malformed.
+         * @throws IndexOutOfBoundsException If the region is out of bounds.
+         */
+        double parseDouble(CharSequence source, int start, int end);
+
+        /**
+         * Appends the literal representation of a {@code double} value to
+         * a string builder.
+         *
+         * @param sb The string builder to be appended.
+         * @param value The value to be converted.
+         * @return The string builder.
+         */
+        StringBuilder appendTo(StringBuilder sb, double value);
+    }
+
+    /**
+     * A converter specialized for {@code boolean} values.
+     */
+    interface OfBoolean extends PrimitiveConverter<Boolean> {
+        /**
+         * Converts a literal value to a {@code boolean} value.
+         *
+         * @param literalValue The literal representation of the value.
+         * @return The value represented by the literal value.
+         * @throws IllegalArgumentException If the literal value is malformed.
+         */
+        default boolean parseBoolean(CharSequence literalValue) {
+            return parseBoolean(literalValue, 0, literalValue.length());
+        }
+
+        /**
+         * Converts a region of a character sequence to a {@code boolean} value.
+         *
+         * @param source The character sequence containing the literal value.
+         * @param start The start index of the literal value, inclusive.
+         * @param end The end index of the literal value, exclusive.
+         * @return The value represented by the literal value.
+         * @throws IllegalArgumentException If the literal value is malformed.
+         * @throws IndexOutOfBoundsException If the region is out of bounds.
+         */
+        boolean parseBoolean(CharSequence source, int start, int end);
+
+        /**
+         * Appends the literal representation of a {@code boolean} value to
+         * a string builder.
+         *
+         * @param sb The string builder to be appended.
+         * @param value The value to be converted.
+         * @return The string builder.
+         */
+        StringBuilder appendTo(StringBuilder sb, boolean value);
+    }
+}
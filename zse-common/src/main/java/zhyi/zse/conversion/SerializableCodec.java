@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * A codec encodes serializable objects to bytes and decodes them back. It is
+ * used by {@link ConverterManager} to convert serializable objects for which no
+ * more specific converter is registered, in which case the literal value is
+ * the BASE-64 representation of the encoded bytes.
+ *
+ * @see ConverterManager#setSerializableCodec(SerializableCodec)
+ * @see CompactSerializableCodec
+ *
+ * @author Zhao Yi
+ */
+public interface SerializableCodec {
+    /**
+     * Encodes a serializable object to bytes.
+     *
+     * @param object The object to be encoded, may be {@code null}.
+     * @return The encoded bytes.
+     * @throws IOException If the object cannot be encoded.
+     */
+    byte[] encode(Serializable object) throws IOException;
+
+    /**
+     * Decodes a serializable object from bytes.
+     *
+     * @param bytes The encoded bytes.
+     * @return The decoded object, may be {@code null}.
+     * @throws ClassNotFoundException If the class of the encoded object
+     *         cannot be found.
+     * @throws IOException If the bytes cannot be decoded.
+     */
+    Serializable decode(byte[] bytes) throws ClassNotFoundException, IOException;
+}
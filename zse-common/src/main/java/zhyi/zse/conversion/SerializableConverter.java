@@ -18,18 +18,22 @@ package zhyi.zse.conversion;
 
 import java.io.IOException;
 import java.io.Serializable;
-import javax.xml.bind.DatatypeConverter;
-import zhyi.zse.lang.ObjectUtils;
+import java.util.Base64;
 
 /**
  * @author Zhao Yi
  */
 class SerializableConverter implements Converter<Serializable> {
+    private SerializableCodec codec;
+
+    SerializableConverter(SerializableCodec codec) {
+        this.codec = codec;
+    }
+
     @Override
     public Serializable asObject(String literalValue) {
         try {
-            return ObjectUtils.unmarshal(
-                    DatatypeConverter.parseBase64Binary(literalValue));
+            return codec.decode(Base64.getDecoder().decode(literalValue));
         } catch (ClassNotFoundException | IOException ex) {
             throw new RuntimeException(ex);
         }
@@ -38,7 +42,7 @@ class SerializableConverter implements Converter<Serializable> {
     @Override
     public String asString(Serializable object) {
         try {
-            return DatatypeConverter.printBase64Binary(ObjectUtils.marshal(object));
+            return Base64.getEncoder().encodeToString(codec.encode(object));
         } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
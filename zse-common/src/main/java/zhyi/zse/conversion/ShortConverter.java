@@ -16,6 +16,8 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
@@ -29,4 +31,18 @@ class ShortConverter extends AbstractConverter<Short> {
     public String asStringInternal(Short object) {
         return object.toString();
     }
+
+    @Override
+    protected Short asObjectInternal(CharSequence source, int start, int end) {
+        return Short.valueOf((short) LongConverter.parse(source, start, end, Short.MIN_VALUE, Short.MAX_VALUE));
+    }
+
+    @Override
+    protected void appendInternal(Appendable out, Short object) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(object.intValue());
+        } else {
+            out.append(object.toString());
+        }
+    }
 }
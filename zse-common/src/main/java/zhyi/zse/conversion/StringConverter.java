@@ -16,6 +16,8 @@
  */
 package zhyi.zse.conversion;
 
+import java.io.IOException;
+
 /**
  * @author Zhao Yi
  */
@@ -31,4 +33,16 @@ class StringConverter implements Converter<String> {
     public String asString(String object) {
         return object == null ? NULL : object;
     }
+
+    @Override
+    public String asObject(CharSequence source, int start, int end) {
+        String literalValue = source.subSequence(start, end).toString();
+        return literalValue.equals(NULL) ? null : literalValue;
+    }
+
+    @Override
+    public <A extends Appendable> A appendTo(A out, String object) throws IOException {
+        out.append(object == null ? NULL : object);
+        return out;
+    }
 }
@@ -18,18 +18,28 @@ package zhyi.zse.conversion;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import zhyi.zse.lang.LiteralCache;
 
 /**
+ * Converts URIs. Converted URIs are cached by their literal values.
+ *
  * @author Zhao Yi
  */
 public class UriConverter extends AbstractConverter<URI> {
+    private LiteralCache<URI> cache = new LiteralCache<>();
+
     @Override
     protected URI asObjectInternal(String literalValue) {
-        try {
-            return new URI(literalValue);
-        } catch (URISyntaxException ex) {
-            throw new RuntimeException(ex);
+        URI uri = cache.get(literalValue);
+        if (uri == null) {
+            try {
+                uri = new URI(literalValue);
+            } catch (URISyntaxException ex) {
+                throw new RuntimeException(ex);
+            }
+            cache.put(literalValue, uri);
         }
+        return uri;
     }
 
     @Override
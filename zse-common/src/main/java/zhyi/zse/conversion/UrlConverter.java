@@ -18,18 +18,30 @@ package zhyi.zse.conversion;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import zhyi.zse.lang.LiteralCache;
 
 /**
+ * Converts URLs. Converted URLs are cached by their literal values, so that
+ * URLs are never used as hash keys, whose {@link URL#hashCode() hashCode} and
+ * {@link URL#equals equals} methods may resolve host names.
+ *
  * @author Zhao Yi
  */
 public class UrlConverter extends AbstractConverter<URL> {
+    private LiteralCache<URL> cache = new LiteralCache<>();
+
     @Override
     protected URL asObjectInternal(String literalValue) {
-        try {
-            return new URL(literalValue);
-        } catch (MalformedURLException ex) {
-            throw new RuntimeException(ex);
+        URL url = cache.get(literalValue);
+        if (url == null) {
+            try {
+                url = new URL(literalValue);
+            } catch (MalformedURLException ex) {
+                throw new RuntimeException(ex);
+            }
+            cache.put(literalValue, url);
         }
+        return url;
     }
 
     @Override
@@ -28,13 +28,6 @@ import java.lang.reflect.Method;
  * @author Zhao Yi
  */
 public abstract class AbstractInvocationHandler implements InvocationHandler {
-    private static final Method EQUALS = ReflectionUtils.getMethod(
-            Object.class, "equals", Object.class);
-    private static final Method HASH_CODE = ReflectionUtils.getMethod(
-            Object.class, "hashCode");
-    private static final Method TO_STRING = ReflectionUtils.getMethod(
-            Object.class, "toString");
-
     /**
      * {@inheritDoc}
      * <p>
@@ -45,15 +38,20 @@ public abstract class AbstractInvocationHandler implements InvocationHandler {
      */
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) {
-        if (method.equals(EQUALS)) {
-            return equals(proxy, args[0]);
-        } else if (method.equals(HASH_CODE)) {
-            return hashCode(proxy);
-        } else if (method.equals(TO_STRING)) {
-            return toString(proxy);
-        } else {
-            return invokeOthers(proxy, method, args);
+        // Proxy classes pass the methods declared by Object for equals,
+        // hashCode and toString, so listener methods are dispatched without
+        // comparing signatures.
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return equals(proxy, args[0]);
+                case "hashCode":
+                    return hashCode(proxy);
+                case "toString":
+                    return toString(proxy);
+            }
         }
+        return invokeOthers(proxy, method, args);
     }
 
     /**
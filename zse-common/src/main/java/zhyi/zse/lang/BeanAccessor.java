@@ -0,0 +1,411 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Generates accessors for bean properties, so that reading or writing a property
+ * is a plain interface call instead of a reflective invocation.
+ * <p>
+ * If the accessor method is public and reachable from this class's class loader,
+ * the accessor is spun with {@link LambdaMetafactory} and can be inlined by the
+ * JIT compiler. Otherwise it is backed by a {@link MethodHandle}, or as the last
+ * resort by {@link ReflectionUtils#invoke}.
+ *
+ * @author Zhao Yi
+ */
+final class BeanAccessor {
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+    private static final ClassLoader LOADER = BeanAccessor.class.getClassLoader();
+    private static final MethodType GETTER_TYPE
+            = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE
+            = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private BeanAccessor() {
+    }
+
+    /**
+     * Creates an accessor for the specified getter method.
+     *
+     * @param getter The getter method, which has no parameters.
+     * @return The getter accessor.
+     */
+    static Getter createGetter(final Method getter) {
+        if (isLinkable(getter)) {
+            try {
+                return (Getter) spin(Getter.class, "get", GETTER_TYPE, getter,
+                        MethodType.methodType(ReflectionUtils.wrap(
+                                getter.getReturnType()), getter.getDeclaringClass()));
+            } catch (Throwable t) {
+                // Fall back to a method handle.
+            }
+        }
+
+        try {
+            final MethodHandle target = adapt(getter, GETTER_TYPE);
+            return new Getter() {
+                @Override
+                public Object get(Object bean) {
+                    try {
+                        return (Object) target.invokeExact(bean);
+                    } catch (RuntimeException | Error ex) {
+                        throw ex;
+                    } catch (Throwable t) {
+                        throw new RuntimeException(t);
+                    }
+                }
+            };
+        } catch (IllegalAccessException ex) {
+            return new Getter() {
+                @Override
+                public Object get(Object bean) {
+                    return ReflectionUtils.invoke0(getter, bean);
+                }
+            };
+        }
+    }
+
+    /**
+     * Creates an accessor for the specified setter method.
+     *
+     * @param setter The setter method, which has exactly one parameter.
+     * @return The setter accessor.
+     */
+    static Setter createSetter(final Method setter) {
+        if (isLinkable(setter)) {
+            try {
+                return (Setter) spin(Setter.class, "set", SETTER_TYPE, setter,
+                        MethodType.methodType(void.class, setter.getDeclaringClass(),
+                                ReflectionUtils.wrap(setter.getParameterTypes()[0])));
+            } catch (Throwable t) {
+                // Fall back to a method handle.
+            }
+        }
+
+        try {
+            final MethodHandle target = adapt(setter, SETTER_TYPE);
+            return new Setter() {
+                @Override
+                public void set(Object bean, Object value) {
+                    try {
+                        target.invokeExact(bean, value);
+                    } catch (RuntimeException | Error ex) {
+                        throw ex;
+                    } catch (Throwable t) {
+                        throw new RuntimeException(t);
+                    }
+                }
+            };
+        } catch (IllegalAccessException ex) {
+            return new Setter() {
+                @Override
+                public void set(Object bean, Object value) {
+                    ReflectionUtils.invoke1(setter, bean, value);
+                }
+            };
+        }
+    }
+
+    /**
+     * Creates a primitive accessor for the specified getter method, so that
+     * the property value can be read without boxing. The accessor is an
+     * {@link IntGetter} for {@code byte}, {@code short}, {@code char} and
+     * {@code int} properties, a {@link LongGetter} for {@code long} properties,
+     * a {@link DoubleGetter} for {@code float} and {@code double} properties,
+     * or a {@link BooleanGetter} for {@code boolean} properties.
+     *
+     * @param getter The getter method, which has no parameters.
+     * @return The primitive getter accessor, or {@code null} if the property
+     *         is not primitive or the accessor cannot be spun.
+     */
+    static Object createPrimitiveGetter(Method getter) {
+        Class<?> type = getter.getReturnType();
+        Class<?> kind;
+        Class<?> accessorClass;
+        String accessorName;
+        if (type == int.class || type == short.class
+                || type == byte.class || type == char.class) {
+            kind = int.class;
+            accessorClass = IntGetter.class;
+            accessorName = "getInt";
+        } else if (type == long.class) {
+            kind = long.class;
+            accessorClass = LongGetter.class;
+            accessorName = "getLong";
+        } else if (type == double.class || type == float.class) {
+            kind = double.class;
+            accessorClass = DoubleGetter.class;
+            accessorName = "getDouble";
+        } else if (type == boolean.class) {
+            kind = boolean.class;
+            accessorClass = BooleanGetter.class;
+            accessorName = "getBoolean";
+        } else {
+            return null;
+        }
+
+        if (isLinkable(getter)) {
+            try {
+                return spin(accessorClass, accessorName,
+                        MethodType.methodType(kind, Object.class), getter,
+                        MethodType.methodType(kind, getter.getDeclaringClass()));
+            } catch (Throwable t) {
+                // Use the boxing accessor instead.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates a primitive accessor for the specified setter method, so that
+     * the property value can be written without boxing. The accessor is an
+     * {@link IntSetter}, {@link LongSetter}, {@link DoubleSetter} or {@link
+     * BooleanSetter} for {@code int}, {@code long}, {@code double} and
+     * {@code boolean} properties respectively.
+     *
+     * @param setter The setter method, which has exactly one parameter.
+     * @return The primitive setter accessor, or {@code null} if the property
+     *         is not one of the above types or the accessor cannot be spun.
+     */
+    static Object createPrimitiveSetter(Method setter) {
+        Class<?> type = setter.getParameterTypes()[0];
+        Class<?> accessorClass;
+        String accessorName;
+        if (type == int.class) {
+            accessorClass = IntSetter.class;
+            accessorName = "setInt";
+        } else if (type == long.class) {
+            accessorClass = LongSetter.class;
+            accessorName = "setLong";
+        } else if (type == double.class) {
+            accessorClass = DoubleSetter.class;
+            accessorName = "setDouble";
+        } else if (type == boolean.class) {
+            accessorClass = BooleanSetter.class;
+            accessorName = "setBoolean";
+        } else {
+            return null;
+        }
+
+        if (isLinkable(setter)) {
+            try {
+                return spin(accessorClass, accessorName,
+                        MethodType.methodType(void.class, Object.class, type), setter,
+                        MethodType.methodType(void.class, setter.getDeclaringClass(), type));
+            } catch (Throwable t) {
+                // Use the boxing accessor instead.
+            }
+        }
+        return null;
+    }
+
+    private static Object spin(Class<?> accessorClass, String accessorName,
+            MethodType accessorType, Method method, MethodType instantiatedType)
+            throws Throwable {
+        MethodHandle target = LOOKUP.findVirtual(method.getDeclaringClass(),
+                method.getName(), MethodType.methodType(
+                        method.getReturnType(), method.getParameterTypes()));
+        return LambdaMetafactory.metafactory(LOOKUP, accessorName,
+                MethodType.methodType(accessorClass), accessorType,
+                target, instantiatedType).getTarget().invoke();
+    }
+
+    // The generated class lives in this package and resolves the bean class
+    // by name through this class's loader, so the method must be an instance
+    // method whose classes are public and visible from here.
+    static boolean isLinkable(Method method) {
+        if (Modifier.isStatic(method.getModifiers())
+                || !Modifier.isPublic(method.getModifiers())
+                || !isVisible(method.getDeclaringClass())
+                || !isVisible(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isVisible(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isVisible(Class<?> c) {
+        while (c.isArray()) {
+            c = c.getComponentType();
+        }
+        if (c.isPrimitive()) {
+            return true;
+        }
+        if (!Modifier.isPublic(c.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(c.getName(), false, LOADER) == c;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    private static MethodHandle adapt(Method method, MethodType type)
+            throws IllegalAccessException {
+        MethodHandle target = LOOKUP.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+            // The bean is simply ignored, the same as Method.invoke does.
+            target = MethodHandles.dropArguments(target, 0, Object.class);
+        }
+        return target.asType(type);
+    }
+
+    /**
+     * A compiled getter of a bean property.
+     */
+    interface Getter {
+        /**
+         * Gets the property value from the specified bean.
+         *
+         * @param bean The bean from which the property is got.
+         * @return The property value.
+         */
+        Object get(Object bean);
+    }
+
+    /**
+     * A compiled setter of a bean property.
+     */
+    interface Setter {
+        /**
+         * Sets a new property value to the specified bean.
+         *
+         * @param bean The bean to which the property is set.
+         * @param value The property's new value.
+         */
+        void set(Object bean, Object value);
+    }
+
+    /**
+     * A compiled getter of an {@code int} property, or a {@code byte},
+     * {@code short} or {@code char} property widened to {@code int}.
+     */
+    interface IntGetter {
+        /**
+         * Gets the property value from the specified bean.
+         *
+         * @param bean The bean from which the property is got.
+         * @return The property value.
+         */
+        int getInt(Object bean);
+    }
+
+    /**
+     * A compiled getter of a {@code long} property.
+     */
+    interface LongGetter {
+        /**
+         * Gets the property value from the specified bean.
+         *
+         * @param bean The bean from which the property is got.
+         * @return The property value.
+         */
+        long getLong(Object bean);
+    }
+
+    /**
+     * A compiled getter of a {@code double} property, or a {@code float}
+     * property widened to {@code double}.
+     */
+    interface DoubleGetter {
+        /**
+         * Gets the property value from the specified bean.
+         *
+         * @param bean The bean from which the property is got.
+         * @return The property value.
+         */
+        double getDouble(Object bean);
+    }
+
+    /**
+     * A compiled getter of a {@code boolean} property.
+     */
+    interface BooleanGetter {
+        /**
+         * Gets the property value from the specified bean.
+         *
+         * @param bean The bean from which the property is got.
+         * @return The property value.
+         */
+        boolean getBoolean(Object bean);
+    }
+
+    /**
+     * A compiled setter of an {@code int} property.
+     */
+    interface IntSetter {
+        /**
+         * Sets a new property value to the specified bean.
+         *
+         * @param bean The bean to which the property is set.
+         * @param value The property's new value.
+         */
+        void setInt(Object bean, int value);
+    }
+
+    /**
+     * A compiled setter of a {@code long} property.
+     */
+    interface LongSetter {
+        /**
+         * Sets a new property value to the specified bean.
+         *
+         * @param bean The bean to which the property is set.
+         * @param value The property's new value.
+         */
+        void setLong(Object bean, long value);
+    }
+
+    /**
+     * A compiled setter of a {@code double} property.
+     */
+    interface DoubleSetter {
+        /**
+         * Sets a new property value to the specified bean.
+         *
+         * @param bean The bean to which the property is set.
+         * @param value The property's new value.
+         */
+        void setDouble(Object bean, double value);
+    }
+
+    /**
+     * A compiled setter of a {@code boolean} property.
+     */
+    interface BooleanSetter {
+        /**
+         * Sets a new property value to the specified bean.
+         *
+         * @param bean The bean to which the property is set.
+         * @param value The property's new value.
+         */
+        void setBoolean(Object bean, boolean value);
+    }
+}
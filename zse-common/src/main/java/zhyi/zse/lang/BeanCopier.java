@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import zhyi.zse.conversion.Converter;
+import zhyi.zse.lang.BeanAccessor.Getter;
+import zhyi.zse.lang.BeanAccessor.Setter;
+
+/**
+ * Copies properties between beans of two fixed classes. The matching getter
+ * and setter pairs are resolved only once when the copier is created by
+ * {@link BeanUtils#copier(Class, Class)}, so a copier instance should be kept
+ * and reused for all beans of the same classes.
+ * <p>
+ * Bean copiers are immutable and thread-safe.
+ *
+ * @param <S> The source bean's type.
+ * @param <T> The target bean's type.
+ *
+ * @author Zhao Yi
+ */
+public final class BeanCopier<S, T> {
+    private Class<S> sourceClass;
+    private Class<T> targetClass;
+    private String[] propertyNames;
+    private Getter[] getters;
+    private Setter[] setters;
+    private Conversion[] conversions;
+    private boolean[] primitives;
+
+    BeanCopier(Class<S> sourceClass, Class<T> targetClass, String[] propertyNames,
+            Getter[] getters, Setter[] setters, Conversion[] conversions,
+            boolean[] primitives) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.propertyNames = propertyNames;
+        this.getters = getters;
+        this.setters = setters;
+        this.conversions = conversions;
+        this.primitives = primitives;
+    }
+
+    /**
+     * Returns the source bean class.
+     *
+     * @return The source bean class.
+     */
+    public Class<S> getSourceClass() {
+        return sourceClass;
+    }
+
+    /**
+     * Returns the target bean class.
+     *
+     * @return The target bean class.
+     */
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * Returns the names of the properties that are copied by this copier.
+     *
+     * @return An unmodifiable list of the copied properties' names.
+     */
+    public List<String> getPropertyNames() {
+        return Collections.unmodifiableList(Arrays.asList(propertyNames));
+    }
+
+    /**
+     * Copies all matching properties from the source bean to the target bean.
+     * A {@code null} value is not copied to a property of primitive type.
+     *
+     * @param source The bean from which the properties are read.
+     * @param target The bean to which the properties are written.
+     * @return The target bean.
+     */
+    public T copy(S source, T target) {
+        for (int i = 0; i < getters.length; i++) {
+            Object value = getters[i].get(source);
+            if (conversions[i] != null) {
+                value = conversions[i].convert(value);
+            }
+            if (value != null || !primitives[i]) {
+                setters[i].set(target, value);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Converts a property value through its literal representation, for
+     * properties whose types do not match.
+     */
+    static class Conversion {
+        private Converter<Object> sourceConverter;
+        private Converter<Object> targetConverter;
+
+        Conversion(Converter<Object> sourceConverter, Converter<Object> targetConverter) {
+            this.sourceConverter = sourceConverter;
+            this.targetConverter = targetConverter;
+        }
+
+        private Object convert(Object value) {
+            return targetConverter.asObject(sourceConverter.asString(value));
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Persists the methods that make up beans' property and listener tables, so
+ * that the tables can be rebuilt by looking up the methods directly instead of
+ * scanning all public methods of the bean classes.
+ * <p>
+ * The index is a text file. Each bean class starts a line with its binary name
+ * and the fingerprint of its public methods, followed by lines of method
+ * signatures indented by spaces, for example:
+ * <pre>
+ * javax.swing.JButton 433 5d6e0c1a
+ *     getText()
+ *     setText(java.lang.String)
+ *     addActionListener(java.awt.event.ActionListener)
+ * </pre>
+ * Blank lines and lines starting with {@code #} are ignored.
+ * <p>
+ * The fingerprint is the number of public methods followed by the sum of their
+ * hash codes, which depend on the names and declaring classes of the methods.
+ * If a bean class gains or loses a public method after it is indexed, the
+ * fingerprint no longer matches, and the index entry of the class is ignored.
+ *
+ * @author Zhao Yi
+ */
+final class BeanIndex {
+    private static final ConcurrentMap<String, Entry>
+            ENTRY_MAP = new ConcurrentHashMap<>();
+    private static final Map<String, Class<?>> PRIMITIVE_CLASS_MAP = new HashMap<>();
+    private static final Splitter PARAMETER_SPLITTER = new Splitter(",", true);
+
+    static {
+        for (Class<?> c : new Class<?>[] {boolean.class, byte.class, char.class,
+                short.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVE_CLASS_MAP.put(c.getName(), c);
+        }
+    }
+
+    private BeanIndex() {
+    }
+
+    /**
+     * Writes the specified methods of a bean class to an index.
+     *
+     * @param beanClass The bean class.
+     * @param methods The methods to be written.
+     * @param writer The writer to which the index is written.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void write(Class<?> beanClass, Collection<Method> methods, Writer writer)
+            throws IOException {
+        writer.write(beanClass.getName());
+        writer.write(' ');
+        writer.write(fingerprint(beanClass.getMethods()));
+        writer.write('\n');
+        for (Method method : methods) {
+            writer.write("    ");
+            writer.write(method.getName());
+            writer.write('(');
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(parameterTypes[i].getName());
+            }
+            writer.write(")\n");
+        }
+    }
+
+    /**
+     * Loads an index. The loaded method signatures are kept until the tables
+     * of their bean classes are built.
+     *
+     * @param reader The reader from which the index is read.
+     * @throws IOException If an I/O error occurs.
+     * @throws IllegalArgumentException If the index is malformed.
+     */
+    static void load(Reader reader) throws IOException {
+        BufferedReader br = new BufferedReader(reader);
+        String className = null;
+        Entry entry = null;
+        String line;
+        while ((line = br.readLine()) != null) {
+            String trimmedLine = line.trim();
+            if (trimmedLine.isEmpty() || trimmedLine.startsWith("#")) {
+                continue;
+            }
+            if (!Character.isWhitespace(line.charAt(0))) {
+                if (className != null) {
+                    ENTRY_MAP.put(className, entry);
+                }
+                int space = trimmedLine.indexOf(' ');
+                if (space == -1) {
+                    throw new IllegalArgumentException("Malformed bean index: " + line);
+                }
+                className = trimmedLine.substring(0, space);
+                entry = new Entry(trimmedLine.substring(space + 1).trim());
+            } else if (className == null || !trimmedLine.endsWith(")")
+                    || trimmedLine.indexOf('(') <= 0) {
+                throw new IllegalArgumentException("Malformed bean index: " + line);
+            } else {
+                entry.signatures.add(trimmedLine);
+            }
+        }
+        if (className != null) {
+            ENTRY_MAP.put(className, entry);
+        }
+    }
+
+    /**
+     * Resolves the indexed methods of the specified bean class. The index entry
+     * of the class is consumed, so it is resolved only once.
+     *
+     * @param beanClass The bean class.
+     * @return The indexed methods, or {@code null} if the class is not indexed
+     *         or the index is out of date.
+     */
+    static Method[] resolve(Class<?> beanClass) {
+        Entry entry = ENTRY_MAP.remove(beanClass.getName());
+        if (entry == null || !entry.fingerprint.equals(fingerprint(beanClass.getMethods()))) {
+            return null;
+        }
+        List<String> signatures = entry.signatures;
+
+        ClassLoader loader = beanClass.getClassLoader();
+        Method[] methods = new Method[signatures.size()];
+        try {
+            for (int i = 0; i < methods.length; i++) {
+                String signature = signatures.get(i);
+                int parenthesis = signature.indexOf('(');
+                String parameterList = signature.substring(
+                        parenthesis + 1, signature.length() - 1);
+                List<String> typeNames = parameterList.isEmpty()
+                        ? new ArrayList<String>()
+                        : PARAMETER_SPLITTER.split(parameterList);
+                Class<?>[] parameterTypes = new Class<?>[typeNames.size()];
+                for (int j = 0; j < parameterTypes.length; j++) {
+                    String typeName = typeNames.get(j);
+                    Class<?> parameterType = PRIMITIVE_CLASS_MAP.get(typeName);
+                    parameterTypes[j] = parameterType != null ? parameterType
+                            : Class.forName(typeName, false, loader);
+                }
+                methods[i] = beanClass.getMethod(
+                        signature.substring(0, parenthesis), parameterTypes);
+            }
+        } catch (ReflectiveOperationException ex) {
+            return null;
+        }
+        return methods;
+    }
+
+    // Method.hashCode combines the hash codes of the method's name and its
+    // declaring class's name, so it is stable across runs. The sum does not
+    // depend on the order of the methods, which is unspecified.
+    private static String fingerprint(Method[] methods) {
+        int hash = 0;
+        for (Method method : methods) {
+            hash += method.hashCode();
+        }
+        return methods.length + " " + Integer.toHexString(hash);
+    }
+
+    private static class Entry {
+        private final String fingerprint;
+        private final List<String> signatures = new ArrayList<>();
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
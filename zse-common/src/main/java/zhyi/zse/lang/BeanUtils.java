@@ -18,12 +18,44 @@ package zhyi.zse.lang;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.EventListener;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import zhyi.zse.conversion.Converter;
+import zhyi.zse.conversion.ConverterManager;
+import zhyi.zse.lang.BeanAccessor.BooleanGetter;
+import zhyi.zse.lang.BeanAccessor.BooleanSetter;
+import zhyi.zse.lang.BeanAccessor.DoubleGetter;
+import zhyi.zse.lang.BeanAccessor.DoubleSetter;
+import zhyi.zse.lang.BeanAccessor.Getter;
+import zhyi.zse.lang.BeanAccessor.IntGetter;
+import zhyi.zse.lang.BeanAccessor.IntSetter;
+import zhyi.zse.lang.BeanAccessor.LongGetter;
+import zhyi.zse.lang.BeanAccessor.LongSetter;
+import zhyi.zse.lang.BeanAccessor.Setter;
+import zhyi.zse.lang.BeanCopier.Conversion;
 
 /**
  * Utility methods for Java Beans.
@@ -31,8 +63,13 @@ import java.util.concurrent.ConcurrentMap;
  * @author Zhao Yi
  */
 public class BeanUtils {
-    private static final ConcurrentMap<Class<?>, BeanMate>
-            BEAN_MATE_MAP = new ConcurrentHashMap<>();
+    private static final ClassCache<BeanMate> BEAN_MATE_CACHE = new ClassCache<BeanMate>() {
+        @Override
+        protected BeanMate computeValue(Class<?> beanClass) {
+            return new BeanMate(beanClass);
+        }
+    };
+    private static final ConverterManager CONVERTER_MANAGER = new ConverterManager();
 
     private BeanUtils() {
     }
@@ -58,6 +95,30 @@ public class BeanUtils {
         return null;
     }
 
+    /**
+     * Returns the getter method of the specified bean property.
+     *
+     * @param beanClass The bean class.
+     * @param propertyName The property name.
+     * @return The getter method, or {@code null} if the property is not
+     *         readable.
+     */
+    public static Method getReadMethod(Class<?> beanClass, String propertyName) {
+        return getBeanMate(beanClass).getterMap.get(propertyName);
+    }
+
+    /**
+     * Returns the setter method of the specified bean property.
+     *
+     * @param beanClass The bean class.
+     * @param propertyName The property name.
+     * @return The setter method, or {@code null} if the property is not
+     *         writable.
+     */
+    public static Method getWriteMethod(Class<?> beanClass, String propertyName) {
+        return getBeanMate(beanClass).setterMap.get(propertyName);
+    }
+
     /**
      * Checks whether the specified bean property is readable.
      *
@@ -91,12 +152,12 @@ public class BeanUtils {
      * @throws IllegalArgumentException If the property is not readable.
      */
     public static Object getProperty(Object bean, String propertyName) {
-        Method getter = getBeanMate(bean.getClass()).getterMap.get(propertyName);
+        Getter getter = getBeanMate(bean.getClass()).getterAccessorMap.get(propertyName);
         if (getter == null) {
             throw new IllegalArgumentException(
                     "Property " + propertyName + " is not readable.");
         }
-        return ReflectionUtils.invoke(getter, bean);
+        return getter.get(bean);
     }
 
     /**
@@ -108,12 +169,369 @@ public class BeanUtils {
      * @throws IllegalArgumentException If the property is not writable.
      */
     public static void setProperty(Object bean, String propertyName, Object property) {
-        Method setter = getBeanMate(bean.getClass()).setterMap.get(propertyName);
+        Setter setter = getBeanMate(bean.getClass()).setterAccessorMap.get(propertyName);
         if (setter == null) {
             throw new IllegalArgumentException(
                     "Property " + propertyName + " is not writable.");
         }
-        ReflectionUtils.invoke(setter, bean, property);
+        setter.set(bean, property);
+    }
+
+    /**
+     * Gets the specified {@code int} bean property value without boxing. The
+     * property's type must be {@code byte}, {@code short}, {@code char},
+     * {@code int} or one of their wrapper classes.
+     *
+     * @param bean The bean from which the property is got.
+     * @param propertyName The property name.
+     * @return The property value.
+     * @throws IllegalArgumentException If the property is not readable, or its
+     *         value cannot be read as an {@code int}.
+     */
+    public static int getIntProperty(Object bean, String propertyName) {
+        Object getter = getBeanMate(bean.getClass()).primitiveGetterMap.get(propertyName);
+        if (getter instanceof IntGetter) {
+            return ((IntGetter) getter).getInt(bean);
+        }
+        return getNumberProperty(bean, propertyName, int.class).intValue();
+    }
+
+    /**
+     * Gets the specified {@code long} bean property value without boxing. The
+     * property's type must be {@code byte}, {@code short}, {@code char},
+     * {@code int}, {@code long} or one of their wrapper classes.
+     *
+     * @param bean The bean from which the property is got.
+     * @param propertyName The property name.
+     * @return The property value.
+     * @throws IllegalArgumentException If the property is not readable, or its
+     *         value cannot be read as a {@code long}.
+     */
+    public static long getLongProperty(Object bean, String propertyName) {
+        Object getter = getBeanMate(bean.getClass()).primitiveGetterMap.get(propertyName);
+        if (getter instanceof LongGetter) {
+            return ((LongGetter) getter).getLong(bean);
+        } else if (getter instanceof IntGetter) {
+            return ((IntGetter) getter).getInt(bean);
+        }
+        return getNumberProperty(bean, propertyName, long.class).longValue();
+    }
+
+    /**
+     * Gets the specified {@code double} bean property value without boxing.
+     * The property's type must be {@code char}, a numeric primitive type, or
+     * one of their wrapper classes.
+     *
+     * @param bean The bean from which the property is got.
+     * @param propertyName The property name.
+     * @return The property value.
+     * @throws IllegalArgumentException If the property is not readable, or its
+     *         value cannot be read as a {@code double}.
+     */
+    public static double getDoubleProperty(Object bean, String propertyName) {
+        Object getter = getBeanMate(bean.getClass()).primitiveGetterMap.get(propertyName);
+        if (getter instanceof DoubleGetter) {
+            return ((DoubleGetter) getter).getDouble(bean);
+        } else if (getter instanceof LongGetter) {
+            return ((LongGetter) getter).getLong(bean);
+        } else if (getter instanceof IntGetter) {
+            return ((IntGetter) getter).getInt(bean);
+        }
+        return getNumberProperty(bean, propertyName, double.class).doubleValue();
+    }
+
+    /**
+     * Gets the specified {@code boolean} bean property value without boxing.
+     * The property's type must be {@code boolean} or {@link Boolean}.
+     *
+     * @param bean The bean from which the property is got.
+     * @param propertyName The property name.
+     * @return The property value.
+     * @throws IllegalArgumentException If the property is not readable, or its
+     *         value cannot be read as a {@code boolean}.
+     */
+    public static boolean getBooleanProperty(Object bean, String propertyName) {
+        Object getter = getBeanMate(bean.getClass()).primitiveGetterMap.get(propertyName);
+        if (getter instanceof BooleanGetter) {
+            return ((BooleanGetter) getter).getBoolean(bean);
+        }
+        Object property = getProperty(bean, propertyName);
+        if (!(property instanceof Boolean)) {
+            throw new IllegalArgumentException("Property " + propertyName
+                    + " cannot be read as boolean.");
+        }
+        return (Boolean) property;
+    }
+
+    /**
+     * Sets a new {@code int} value to the specified bean property without
+     * boxing if the property's type is {@code int}.
+     *
+     * @param bean The bean to which the new property is set.
+     * @param propertyName The property name.
+     * @param property The property's new value.
+     * @throws IllegalArgumentException If the property is not writable.
+     */
+    public static void setIntProperty(Object bean, String propertyName, int property) {
+        Object setter = getBeanMate(bean.getClass()).primitiveSetterMap.get(propertyName);
+        if (setter instanceof IntSetter) {
+            ((IntSetter) setter).setInt(bean, property);
+        } else {
+            setProperty(bean, propertyName, property);
+        }
+    }
+
+    /**
+     * Sets a new {@code long} value to the specified bean property without
+     * boxing if the property's type is {@code long}.
+     *
+     * @param bean The bean to which the new property is set.
+     * @param propertyName The property name.
+     * @param property The property's new value.
+     * @throws IllegalArgumentException If the property is not writable.
+     */
+    public static void setLongProperty(Object bean, String propertyName, long property) {
+        Object setter = getBeanMate(bean.getClass()).primitiveSetterMap.get(propertyName);
+        if (setter instanceof LongSetter) {
+            ((LongSetter) setter).setLong(bean, property);
+        } else {
+            setProperty(bean, propertyName, property);
+        }
+    }
+
+    /**
+     * Sets a new {@code double} value to the specified bean property without
+     * boxing if the property's type is {@code double}.
+     *
+     * @param bean The bean to which the new property is set.
+     * @param propertyName The property name.
+     * @param property The property's new value.
+     * @throws IllegalArgumentException If the property is not writable.
+     */
+    public static void setDoubleProperty(Object bean, String propertyName, double property) {
+        Object setter = getBeanMate(bean.getClass()).primitiveSetterMap.get(propertyName);
+        if (setter instanceof DoubleSetter) {
+            ((DoubleSetter) setter).setDouble(bean, property);
+        } else {
+            setProperty(bean, propertyName, property);
+        }
+    }
+
+    /**
+     * Sets a new {@code boolean} value to the specified bean property without
+     * boxing if the property's type is {@code boolean}.
+     *
+     * @param bean The bean to which the new property is set.
+     * @param propertyName The property name.
+     * @param property The property's new value.
+     * @throws IllegalArgumentException If the property is not writable.
+     */
+    public static void setBooleanProperty(Object bean, String propertyName, boolean property) {
+        Object setter = getBeanMate(bean.getClass()).primitiveSetterMap.get(propertyName);
+        if (setter instanceof BooleanSetter) {
+            ((BooleanSetter) setter).setBoolean(bean, property);
+        } else {
+            setProperty(bean, propertyName, property);
+        }
+    }
+
+    /**
+     * Creates a copier that copies all properties readable from the source
+     * class and writable to the target class with the same name and a compatible
+     * type. This method is a convenient variant of {@link #copier(Class, Class,
+     * ConverterManager) copier(Class, Class, ConverterManager)} when no type
+     * conversion is needed.
+     *
+     * @param <S> The source bean's type.
+     * @param <T> The target bean's type.
+     * @param sourceClass The source bean class.
+     * @param targetClass The target bean class.
+     * @return The bean copier.
+     */
+    public static <S, T> BeanCopier<S, T> copier(
+            Class<S> sourceClass, Class<T> targetClass) {
+        return copier(sourceClass, targetClass, null);
+    }
+
+    /**
+     * Creates a copier that copies all properties readable from the source
+     * class and writable to the target class with the same name. If the types
+     * of a pair of properties are not compatible, the value is converted through
+     * its literal representation with converters provided by the specified
+     * converter manager. Properties that can be neither assigned nor converted
+     * are not copied; a target property is not considered convertible if its
+     * type only has a converter inherited from a supertype, such as the one for
+     * {@link java.io.Serializable Serializable}.
+     *
+     * @param <S> The source bean's type.
+     * @param <T> The target bean's type.
+     * @param sourceClass The source bean class.
+     * @param targetClass The target bean class.
+     * @param converterManager The converter manager for converting properties
+     *        of incompatible types; may be {@code null}, in which case only
+     *        properties of compatible types are copied.
+     * @return The bean copier.
+     */
+    @SuppressWarnings("unchecked")
+    public static <S, T> BeanCopier<S, T> copier(Class<S> sourceClass,
+            Class<T> targetClass, ConverterManager converterManager) {
+        BeanMate sourceMate = getBeanMate(sourceClass);
+        BeanMate targetMate = getBeanMate(targetClass);
+        List<String> propertyNames = new ArrayList<>();
+        List<Getter> getters = new ArrayList<>();
+        List<Setter> setters = new ArrayList<>();
+        List<Conversion> conversions = new ArrayList<>();
+        List<Boolean> primitives = new ArrayList<>();
+        for (Entry<String, Method> e : sourceMate.getterMap.entrySet()) {
+            String propertyName = e.getKey();
+            Method setter = targetMate.setterMap.get(propertyName);
+            if (setter == null) {
+                continue;
+            }
+
+            Class<?> sourceType = e.getValue().getReturnType();
+            Class<?> targetType = setter.getParameterTypes()[0];
+            Conversion conversion = null;
+            if (!ReflectionUtils.wrap(targetType).isAssignableFrom(
+                    ReflectionUtils.wrap(sourceType))) {
+                if (converterManager == null) {
+                    continue;
+                }
+                Converter<?> sourceConverter = converterManager.getConverter(sourceType);
+                // The converter for a supertype, e.g. Serializable, may not
+                // produce instances of the target type.
+                Converter<?> targetConverter = converterManager.getConverter(targetType, false);
+                if (sourceConverter == null || targetConverter == null) {
+                    continue;
+                }
+                conversion = new Conversion((Converter<Object>) sourceConverter,
+                        (Converter<Object>) targetConverter);
+            }
+
+            propertyNames.add(propertyName);
+            getters.add(sourceMate.getterAccessorMap.get(propertyName));
+            setters.add(targetMate.setterAccessorMap.get(propertyName));
+            conversions.add(conversion);
+            primitives.add(targetType.isPrimitive());
+        }
+
+        int size = propertyNames.size();
+        boolean[] primitiveArray = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            primitiveArray[i] = primitives.get(i);
+        }
+        return new BeanCopier<>(sourceClass, targetClass,
+                propertyNames.toArray(new String[size]),
+                getters.toArray(new Getter[size]),
+                setters.toArray(new Setter[size]),
+                conversions.toArray(new Conversion[size]),
+                primitiveArray);
+    }
+
+    /**
+     * Returns a map view of the specified bean. The map's keys are the names
+     * of the bean's readable properties in alphabetical order, except those
+     * defined by {@link Object} like {@code class}. The key set is computed
+     * only once per bean class, and the values are read from the bean each
+     * time they are accessed, so creating and reading the view is cheap.
+     * <p>
+     * Putting a value to the map sets the bean property and returns its previous
+     * value. Removing mappings from the map is not supported.
+     *
+     * @param bean The bean to be viewed as a map.
+     * @return The map view of the bean.
+     */
+    public static Map<String, Object> asMap(Object bean) {
+        return new BeanMap(bean, getBeanMate(bean.getClass()));
+    }
+
+    /**
+     * Sets bean properties with the values contained in a map, converting
+     * string values with a default converter manager if necessary. This method
+     * is a convenient variant of {@link #populate(Map, Object, ConverterManager)
+     * populate(Map, Object, ConverterManager)}.
+     *
+     * @param properties The map containing property names and values.
+     * @param bean The bean to which the properties are set.
+     * @throws IllegalArgumentException If a string value cannot be converted
+     *         to the property's type.
+     */
+    public static void populate(Map<String, ?> properties, Object bean) {
+        populate(properties, bean, CONVERTER_MANAGER);
+    }
+
+    /**
+     * Sets bean properties with the values contained in a map. If a value is
+     * a string but the property is not of a string compatible type, it is
+     * converted with a converter provided by the specified converter manager,
+     * which must be registered for the property's type rather than inherited
+     * from a supertype. Entries whose keys are not names of writable
+     * properties are ignored, and a {@code null} value is not set to a
+     * property of primitive type.
+     *
+     * @param properties The map containing property names and values.
+     * @param bean The bean to which the properties are set.
+     * @param converterManager The converter manager for converting string
+     *        values.
+     * @throws IllegalArgumentException If a string value cannot be converted
+     *         to the property's type.
+     */
+    public static void populate(Map<String, ?> properties,
+            Object bean, ConverterManager converterManager) {
+        BeanMate beanMate = getBeanMate(bean.getClass());
+        for (Entry<String, ?> e : properties.entrySet()) {
+            String propertyName = e.getKey();
+            Method setter = beanMate.setterMap.get(propertyName);
+            if (setter == null) {
+                continue;
+            }
+
+            Class<?> propertyClass = setter.getParameterTypes()[0];
+            Object property = e.getValue();
+            if (propertyClass.isPrimitive() && property instanceof String
+                    && !((String) property).isEmpty()
+                    && populatePrimitive(bean, propertyName, propertyClass,
+                            (String) property, converterManager)) {
+                continue;
+            }
+            if (property instanceof String
+                    && !ReflectionUtils.wrap(propertyClass).isInstance(property)) {
+                Converter<?> converter = converterManager.getConverter(propertyClass, false);
+                if (converter == null) {
+                    throw new IllegalArgumentException("Property " + propertyName
+                            + " cannot be converted from a string.");
+                }
+                property = converter.asObject((String) property);
+            }
+            if (property != null || !propertyClass.isPrimitive()) {
+                beanMate.setterAccessorMap.get(propertyName).set(bean, property);
+            }
+        }
+    }
+
+    // Converts and sets a primitive property without boxing. Returns false
+    // if the property's type has no primitive converter.
+    private static boolean populatePrimitive(Object bean, String propertyName,
+            Class<?> propertyClass, String property, ConverterManager converterManager) {
+        if (converterManager.getConverter(propertyClass, false) == null) {
+            return false;
+        }
+        if (propertyClass == int.class) {
+            setIntProperty(bean, propertyName,
+                    converterManager.getIntConverter().parseInt(property));
+        } else if (propertyClass == long.class) {
+            setLongProperty(bean, propertyName,
+                    converterManager.getLongConverter().parseLong(property));
+        } else if (propertyClass == double.class) {
+            setDoubleProperty(bean, propertyName,
+                    converterManager.getDoubleConverter().parseDouble(property));
+        } else if (propertyClass == boolean.class) {
+            setBooleanProperty(bean, propertyName,
+                    converterManager.getBooleanConverter().parseBoolean(property));
+        } else {
+            return false;
+        }
+        return true;
     }
 
     /**
@@ -156,7 +574,7 @@ public class BeanUtils {
             throw new IllegalArgumentException(
                     listenerClass.getName() + " is not supported.");
         }
-        ReflectionUtils.invoke(addListener, bean, listener);
+        ReflectionUtils.invoke1(addListener, bean, listener);
     }
 
     /**
@@ -176,7 +594,7 @@ public class BeanUtils {
             throw new IllegalArgumentException(
                     listenerClass.getName() + " is not supported.");
         }
-        ReflectionUtils.invoke(removeListener, bean, listener);
+        ReflectionUtils.invoke1(removeListener, bean, listener);
     }
 
     /**
@@ -196,7 +614,7 @@ public class BeanUtils {
             throw new IllegalArgumentException(
                     "Named PropertyChangeListener is not supported.");
         }
-        ReflectionUtils.invoke(addSpecificPropertyChangeListener,
+        ReflectionUtils.invoke2(addSpecificPropertyChangeListener,
                 bean, propertyName, propertyChangeListener);
     }
 
@@ -217,7 +635,7 @@ public class BeanUtils {
             throw new IllegalArgumentException(
                     "Named PropertyChangeListener is not supported.");
         }
-        ReflectionUtils.invoke(removeSpecificPropertyChangeListener,
+        ReflectionUtils.invoke2(removeSpecificPropertyChangeListener,
                 bean, propertyName, propertyChangeListener);
     }
 
@@ -299,22 +717,165 @@ public class BeanUtils {
         });
     }
 
-    private static BeanMate getBeanMate(Class<?> beanClass) {
-        BeanMate beanMate = BEAN_MATE_MAP.get(beanClass);
-        if (beanMate == null) {
-            beanMate = new BeanMate(beanClass);
-            BeanMate existingBeanMate = BEAN_MATE_MAP.putIfAbsent(
-                    beanClass, beanMate);
-            if (existingBeanMate != null) {
-                beanMate = existingBeanMate;
+    /**
+     * Returns the cache of introspected bean classes. The cache can be used
+     * to monitor its hit, miss and eviction counts, to set a maximum size, or
+     * to discard the metadata of specific classes.
+     *
+     * @return The cache of introspected bean classes.
+     */
+    public static ClassCache<?> getIntrospectionCache() {
+        return BEAN_MATE_CACHE;
+    }
+
+    /**
+     * Introspects the specified bean classes concurrently on the common
+     * fork-join pool, so that later accesses to them do not pay for the
+     * introspection. Classes that have been introspected are skipped.
+     *
+     * @param beanClasses The bean classes to be introspected.
+     */
+    public static void preload(Collection<Class<?>> beanClasses) {
+        List<Callable<BeanMate>> tasks = new ArrayList<>(beanClasses.size());
+        for (final Class<?> beanClass : beanClasses) {
+            tasks.add(new Callable<BeanMate>() {
+                @Override
+                public BeanMate call() {
+                    return getBeanMate(beanClass);
+                }
+            });
+        }
+        try {
+            for (Future<BeanMate> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+                future.get();
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Writes the property and listener tables of the specified bean classes
+     * to an index, typically at build time. The index can be loaded at startup
+     * with {@link #loadIndex(Reader)}.
+     *
+     * @param beanClasses The bean classes to be indexed.
+     * @param writer The writer to which the index is written.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static void writeIndex(Collection<Class<?>> beanClasses, Writer writer)
+            throws IOException {
+        for (Class<?> beanClass : beanClasses) {
+            BeanIndex.write(beanClass, getBeanMate(beanClass).getIndexedMethods(), writer);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Loads an index written by {@link #writeIndex(Collection, Writer)}. When
+     * an indexed bean class is introspected for the first time, its property
+     * and listener tables are built by looking up the indexed methods, instead
+     * of scanning all of its public methods. If the class has gained or lost
+     * public methods since it was indexed, its index entry is ignored and the
+     * class is scanned as usual.
+     *
+     * @param reader The reader from which the index is read.
+     * @throws IOException If an I/O error occurs.
+     * @throws IllegalArgumentException If the index is malformed.
+     */
+    public static void loadIndex(Reader reader) throws IOException {
+        BeanIndex.load(reader);
+    }
+
+    // The slow path for the numeric primitive getters, used if the property
+    // is not primitive or its primitive accessor cannot be spun. Only widening
+    // conversions to the desired primitive type are allowed.
+    private static Number getNumberProperty(
+            Object bean, String propertyName, Class<?> primitiveClass) {
+        Object property = getProperty(bean, propertyName);
+        if (property instanceof Character) {
+            property = (int) (Character) property;
         }
-        return beanMate;
+        if (property instanceof Integer || property instanceof Short
+                || property instanceof Byte
+                || (property instanceof Long && primitiveClass != int.class)
+                || ((property instanceof Double || property instanceof Float)
+                        && primitiveClass == double.class)) {
+            return (Number) property;
+        }
+        throw new IllegalArgumentException("Property " + propertyName
+                + " cannot be read as " + primitiveClass + ".");
+    }
+
+    /**
+     * Returns the compiled getter of the specified bean property.
+     *
+     * @param beanClass The bean class.
+     * @param propertyName The property name.
+     * @return The compiled getter, or {@code null} if the property is not
+     *         readable.
+     */
+    static Getter getGetter(Class<?> beanClass, String propertyName) {
+        return getBeanMate(beanClass).getterAccessorMap.get(propertyName);
+    }
+
+    /**
+     * Returns the compiled setter of the specified bean property.
+     *
+     * @param beanClass The bean class.
+     * @param propertyName The property name.
+     * @return The compiled setter, or {@code null} if the property is not
+     *         writable.
+     */
+    static Setter getSetter(Class<?> beanClass, String propertyName) {
+        return getBeanMate(beanClass).setterAccessorMap.get(propertyName);
+    }
+
+    private static BeanMate getBeanMate(Class<?> beanClass) {
+        return BEAN_MATE_CACHE.get(beanClass);
     }
 
     private static class BeanMate {
+        // Records are supported only if running on Java 16 or later.
+        private static final Method IS_RECORD;
+        private static final Method GET_RECORD_COMPONENTS;
+        private static final Method GET_ACCESSOR;
+
+        static {
+            Method isRecord = null;
+            Method getRecordComponents = null;
+            Method getAccessor = null;
+            try {
+                isRecord = Class.class.getMethod("isRecord");
+                getRecordComponents = Class.class.getMethod("getRecordComponents");
+                getAccessor = getRecordComponents.getReturnType()
+                        .getComponentType().getMethod("getAccessor");
+            } catch (NoSuchMethodException ex) {
+                isRecord = null;
+            }
+            IS_RECORD = isRecord;
+            GET_RECORD_COMPONENTS = getRecordComponents;
+            GET_ACCESSOR = getAccessor;
+        }
+
         private Map<String, Method> getterMap;
         private Map<String, Method> setterMap;
+        private Map<String, Getter> getterAccessorMap;
+        private Map<String, Setter> setterAccessorMap;
+        private Map<String, Object> primitiveGetterMap;
+        private Map<String, Object> primitiveSetterMap;
+        private String[] propertyNames;
+        private Map<String, Integer> propertyIndexMap;
+        private Getter[] propertyGetters;
         private Map<Class<?>, Method> addListenerMap;
         private Map<Class<?>, Method> removeListenerMap;
         private Method addNamedPropertyChangeListener;
@@ -325,18 +886,29 @@ public class BeanUtils {
             setterMap = new HashMap<>();
             addListenerMap = new HashMap<>();
             removeListenerMap = new HashMap<>();
-            for (Method method : beanClass.getMethods()) {
+            Method[] methods = BeanIndex.resolve(beanClass);
+            if (methods == null) {
+                methods = beanClass.getMethods();
+            }
+            Map<String, Method> isGetterMap = new HashMap<>();
+            for (Method method : methods) {
                 String name = method.getName();
                 Class<?>[] parameterTypes = method.getParameterTypes();
                 switch (parameterTypes.length) {
                     case 0:
-                        if (name.startsWith("get")) {
+                        Class<?> returnType = method.getReturnType();
+                        if (name.length() > 3 && name.startsWith("get")
+                                && returnType != void.class) {
                             getterMap.put(Character.toLowerCase(name.charAt(3))
                                     + name.substring(4), method);
+                        } else if (name.length() > 2 && name.startsWith("is")
+                                && returnType == boolean.class) {
+                            isGetterMap.put(Character.toLowerCase(name.charAt(2))
+                                    + name.substring(3), method);
                         }
                         break;
                     case 1:
-                        if (name.startsWith("set")) {
+                        if (name.length() > 3 && name.startsWith("set")) {
                             setterMap.put(Character.toLowerCase(name.charAt(3))
                                     + name.substring(4), method);
                         } else if (name.endsWith("Listener")
@@ -361,6 +933,210 @@ public class BeanUtils {
                         }
                 }
             }
+
+            // Like java.beans.Introspector, an is-getter takes precedence over
+            // a get-getter of the same property.
+            getterMap.putAll(isGetterMap);
+
+            // Record components are read by their accessors, e.g. name().
+            if (IS_RECORD != null && (Boolean) ReflectionUtils.invoke0(IS_RECORD, beanClass)) {
+                for (Object component : (Object[]) ReflectionUtils.invoke0(
+                        GET_RECORD_COMPONENTS, beanClass)) {
+                    Method accessor = (Method) ReflectionUtils.invoke0(GET_ACCESSOR, component);
+                    getterMap.put(accessor.getName(), accessor);
+                }
+            }
+
+            // A fluent setter, e.g. Bean name(String), is recognized only if
+            // it returns the bean's type and pairs with a getter of the same
+            // property type, and there is no conventional setter.
+            for (Method method : methods) {
+                String name = method.getName();
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                Method getter = getterMap.get(name);
+                if (parameterTypes.length == 1 && getter != null
+                        && getter.getReturnType() == parameterTypes[0]
+                        && !setterMap.containsKey(name)
+                        && !Modifier.isStatic(method.getModifiers())
+                        && method.getReturnType() != Object.class
+                        && method.getReturnType().isAssignableFrom(beanClass)) {
+                    setterMap.put(name, method);
+                }
+            }
+
+            // Accessors are compiled only once per bean class, after the
+            // getters and setters are finally determined.
+            getterAccessorMap = new HashMap<>();
+            primitiveGetterMap = new HashMap<>();
+            for (Entry<String, Method> e : getterMap.entrySet()) {
+                getterAccessorMap.put(e.getKey(), BeanAccessor.createGetter(e.getValue()));
+                Object primitiveGetter = BeanAccessor.createPrimitiveGetter(e.getValue());
+                if (primitiveGetter != null) {
+                    primitiveGetterMap.put(e.getKey(), primitiveGetter);
+                }
+            }
+            setterAccessorMap = new HashMap<>();
+            primitiveSetterMap = new HashMap<>();
+            for (Entry<String, Method> e : setterMap.entrySet()) {
+                setterAccessorMap.put(e.getKey(), BeanAccessor.createSetter(e.getValue()));
+                Object primitiveSetter = BeanAccessor.createPrimitiveSetter(e.getValue());
+                if (primitiveSetter != null) {
+                    primitiveSetterMap.put(e.getKey(), primitiveSetter);
+                }
+            }
+
+            // The fixed key set of bean maps.
+            List<String> names = new ArrayList<>();
+            for (Entry<String, Method> e : getterMap.entrySet()) {
+                if (e.getValue().getDeclaringClass() != Object.class) {
+                    names.add(e.getKey());
+                }
+            }
+            Collections.sort(names);
+            propertyNames = names.toArray(new String[names.size()]);
+            propertyIndexMap = new HashMap<>();
+            propertyGetters = new Getter[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                propertyIndexMap.put(propertyNames[i], i);
+                propertyGetters[i] = getterAccessorMap.get(propertyNames[i]);
+            }
+        }
+
+        // The methods from which the tables are built, in a stable order.
+        private List<Method> getIndexedMethods() {
+            List<Method> methods = new ArrayList<>();
+            for (Map<?, Method> map : Arrays.asList(getterMap,
+                    setterMap, addListenerMap, removeListenerMap)) {
+                methods.addAll(map.values());
+            }
+            if (addNamedPropertyChangeListener != null) {
+                methods.add(addNamedPropertyChangeListener);
+            }
+            if (removeNamedPropertyChangeListener != null) {
+                methods.add(removeNamedPropertyChangeListener);
+            }
+            Collections.sort(methods, new Comparator<Method>() {
+                @Override
+                public int compare(Method m1, Method m2) {
+                    return m1.toString().compareTo(m2.toString());
+                }
+            });
+            return methods;
+        }
+    }
+
+    private static class BeanMap extends AbstractMap<String, Object> {
+        private Object bean;
+        private BeanMate beanMate;
+        private Set<Entry<String, Object>> entrySet;
+
+        private BeanMap(Object bean, BeanMate beanMate) {
+            this.bean = bean;
+            this.beanMate = beanMate;
+        }
+
+        @Override
+        public int size() {
+            return beanMate.propertyNames.length;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return beanMate.propertyIndexMap.containsKey(key);
+        }
+
+        @Override
+        public Object get(Object key) {
+            Integer index = beanMate.propertyIndexMap.get(key);
+            return index == null ? null : beanMate.propertyGetters[index].get(bean);
+        }
+
+        @Override
+        public Object put(String key, Object value) {
+            Object oldValue = get(key);
+            setProperty(bean, key, value);
+            return oldValue;
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, Object>>() {
+                    @Override
+                    public int size() {
+                        return beanMate.propertyNames.length;
+                    }
+
+                    @Override
+                    public Iterator<Entry<String, Object>> iterator() {
+                        return new Iterator<Entry<String, Object>>() {
+                            private int index;
+
+                            @Override
+                            public boolean hasNext() {
+                                return index < beanMate.propertyNames.length;
+                            }
+
+                            @Override
+                            public Entry<String, Object> next() {
+                                if (!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                return new BeanEntry(index++);
+                            }
+
+                            @Override
+                            public void remove() {
+                                throw new UnsupportedOperationException();
+                            }
+                        };
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        private class BeanEntry implements Entry<String, Object> {
+            private int index;
+
+            private BeanEntry(int index) {
+                this.index = index;
+            }
+
+            @Override
+            public String getKey() {
+                return beanMate.propertyNames[index];
+            }
+
+            @Override
+            public Object getValue() {
+                return beanMate.propertyGetters[index].get(bean);
+            }
+
+            @Override
+            public Object setValue(Object value) {
+                return put(getKey(), value);
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (!(o instanceof Entry)) {
+                    return false;
+                }
+                Entry<?, ?> e = (Entry<?, ?>) o;
+                return getKey().equals(e.getKey())
+                        && Objects.equals(getValue(), e.getValue());
+            }
+
+            @Override
+            public int hashCode() {
+                return getKey().hashCode() ^ Objects.hashCode(getValue());
+            }
+
+            @Override
+            public String toString() {
+                return getKey() + "=" + getValue();
+            }
         }
     }
 }
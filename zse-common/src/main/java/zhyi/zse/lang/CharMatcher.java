@@ -0,0 +1,402 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.util.Arrays;
+
+/**
+ * Matches characters against a predefined set, and searches, counts and trims
+ * matching characters in character sequences and Latin-1 byte arrays. Bulk
+ * operations return indices rather than new strings, for example:
+ * <pre>
+ * int start = CharMatcher.WHITESPACE.trimStart(line, 0, line.length());
+ * int end = CharMatcher.WHITESPACE.trimEnd(line, start, line.length());
+ * int comma = CharMatcher.anyOf(",;").indexIn(line, start, end);
+ * </pre>
+ * Membership of Latin-1 characters is looked up in a bit set computed when the
+ * matcher is created, so scanning Latin-1 content never calls back into the
+ * matcher's definition.
+ * <p>
+ * Char matchers are immutable and thread-safe.
+ *
+ * @author Zhao Yi
+ */
+public abstract class CharMatcher {
+    /**
+     * Matches whitespace characters as defined by {@link Character#isWhitespace(char)}.
+     */
+    public static final CharMatcher WHITESPACE = new CharMatcher(latin1Whitespaces()) {
+        @Override
+        boolean matchesOther(char c) {
+            return Character.isWhitespace(c);
+        }
+    };
+
+    /**
+     * Matches characters removed by {@link String#trim()}, that is, characters
+     * not greater than {@code ' '}.
+     */
+    public static final CharMatcher TRIMMABLE = inRange('\u0000', ' ');
+
+    private static final int LATIN1_LIMIT = 256;
+
+    private final long[] latin1Bits;
+
+    private CharMatcher(long[] latin1Bits) {
+        this.latin1Bits = latin1Bits;
+    }
+
+    /**
+     * Returns a matcher that matches only the specified character.
+     *
+     * @param c The character to be matched.
+     * @return The char matcher.
+     */
+    public static CharMatcher is(char c) {
+        return anyOf(String.valueOf(c));
+    }
+
+    /**
+     * Returns a matcher that matches any of the specified characters.
+     *
+     * @param chars The characters to be matched.
+     * @return The char matcher.
+     */
+    public static CharMatcher anyOf(CharSequence chars) {
+        long[] latin1Bits = new long[LATIN1_LIMIT / 64];
+        char[] others = new char[chars.length()];
+        int otherCount = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < LATIN1_LIMIT) {
+                latin1Bits[c >>> 6] |= 1L << c;
+            } else {
+                others[otherCount++] = c;
+            }
+        }
+        final char[] sortedOthers = Arrays.copyOf(others, otherCount);
+        Arrays.sort(sortedOthers);
+        return new CharMatcher(latin1Bits) {
+            @Override
+            boolean matchesOther(char c) {
+                return sortedOthers.length > 0 && Arrays.binarySearch(sortedOthers, c) >= 0;
+            }
+        };
+    }
+
+    /**
+     * Returns a matcher that matches characters in the specified range.
+     *
+     * @param from The first character to be matched.
+     * @param to The last character to be matched.
+     * @return The char matcher.
+     */
+    public static CharMatcher inRange(final char from, final char to) {
+        long[] latin1Bits = new long[LATIN1_LIMIT / 64];
+        for (int c = from; c <= to && c < LATIN1_LIMIT; c++) {
+            latin1Bits[c >>> 6] |= 1L << c;
+        }
+        return new CharMatcher(latin1Bits) {
+            @Override
+            boolean matchesOther(char c) {
+                return c >= from && c <= to;
+            }
+        };
+    }
+
+    /**
+     * Returns a matcher that matches characters not matched by this matcher.
+     *
+     * @return The negated char matcher.
+     */
+    public CharMatcher negate() {
+        long[] negatedBits = new long[latin1Bits.length];
+        for (int i = 0; i < negatedBits.length; i++) {
+            negatedBits[i] = ~latin1Bits[i];
+        }
+        final CharMatcher original = this;
+        return new CharMatcher(negatedBits) {
+            @Override
+            boolean matchesOther(char c) {
+                return !original.matchesOther(c);
+            }
+
+            @Override
+            public CharMatcher negate() {
+                return original;
+            }
+        };
+    }
+
+    /**
+     * Determines whether a character is matched.
+     *
+     * @param c The character.
+     * @return {@code true} if the character is matched, otherwise {@code false}.
+     */
+    public final boolean matches(char c) {
+        return c < LATIN1_LIMIT ? matchesLatin1(c) : matchesOther(c);
+    }
+
+    /**
+     * Returns the index of the first matching character in a character sequence.
+     *
+     * @param s The character sequence.
+     * @return The index of the first matching character, or {@code -1} if none.
+     */
+    public int indexIn(CharSequence s) {
+        return indexIn(s, 0, s.length());
+    }
+
+    /**
+     * Returns the index of the first matching character in a region of a
+     * character sequence.
+     *
+     * @param s The character sequence.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The index of the first matching character, or {@code -1} if none.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int indexIn(CharSequence s, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (matches(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last matching character in a region of a
+     * character sequence.
+     *
+     * @param s The character sequence.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The index of the last matching character, or {@code -1} if none.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int lastIndexIn(CharSequence s, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (matches(s.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the matching characters in a character sequence.
+     *
+     * @param s The character sequence.
+     * @return The number of matching characters.
+     */
+    public int countIn(CharSequence s) {
+        return countIn(s, 0, s.length());
+    }
+
+    /**
+     * Counts the matching characters in a region of a character sequence.
+     *
+     * @param s The character sequence.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The number of matching characters.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int countIn(CharSequence s, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (matches(s.charAt(i))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Determines whether all characters of a character sequence are matched.
+     * For example, {@code CharMatcher.WHITESPACE.matchesAllOf(s)} tests whether
+     * {@code s} is blank.
+     *
+     * @param s The character sequence.
+     * @return {@code true} if all characters are matched, or the character
+     *         sequence is empty, otherwise {@code false}.
+     */
+    public boolean matchesAllOf(CharSequence s) {
+        return trimStart(s, 0, s.length()) == s.length();
+    }
+
+    /**
+     * Determines whether no character of a character sequence is matched.
+     *
+     * @param s The character sequence.
+     * @return {@code true} if no character is matched, otherwise {@code false}.
+     */
+    public boolean matchesNoneOf(CharSequence s) {
+        return indexIn(s) == -1;
+    }
+
+    /**
+     * Skips matching characters at the start of a region of a character sequence.
+     *
+     * @param s The character sequence.
+     * @param start The start index of the region, inclusive.
+     * @param end The end index of the region, exclusive.
+     * @return The index of the first character in the region that is not
+     *         matched, or {@code end} if all characters are matched.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int trimStart(CharSequence s, int start, int end) {
+        while (start < end && matches(s.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skips matching characters at the end of a region of a character sequence.
+     *
+     * @param s The character sequence.
+     * @param start The start index of the region, inclusive.
+     * @param end The end index of the region, exclusive.
+     * @return The index after the last character in the region that is not
+     *         matched, or {@code start} if all characters are matched.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int trimEnd(CharSequence s, int start, int end) {
+        while (end > start && matches(s.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns the index of the first matching character in a region of a
+     * Latin-1 encoded byte array.
+     *
+     * @param latin1 The Latin-1 encoded characters.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The index of the first matching character, or {@code -1} if none.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int indexIn(byte[] latin1, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (matchesLatin1(latin1[i] & 0xFF)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last matching character in a region of a
+     * Latin-1 encoded byte array.
+     *
+     * @param latin1 The Latin-1 encoded characters.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The index of the last matching character, or {@code -1} if none.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int lastIndexIn(byte[] latin1, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (matchesLatin1(latin1[i] & 0xFF)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the matching characters in a region of a Latin-1 encoded byte array.
+     *
+     * @param latin1 The Latin-1 encoded characters.
+     * @param from The start index of the region, inclusive.
+     * @param to The end index of the region, exclusive.
+     * @return The number of matching characters.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int countIn(byte[] latin1, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int c = latin1[i] & 0xFF;
+            count += (int) (latin1Bits[c >>> 6] >>> c) & 1;
+        }
+        return count;
+    }
+
+    /**
+     * Skips matching characters at the start of a region of a Latin-1 encoded
+     * byte array.
+     *
+     * @param latin1 The Latin-1 encoded characters.
+     * @param start The start index of the region, inclusive.
+     * @param end The end index of the region, exclusive.
+     * @return The index of the first character in the region that is not
+     *         matched, or {@code end} if all characters are matched.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int trimStart(byte[] latin1, int start, int end) {
+        while (start < end && matchesLatin1(latin1[start] & 0xFF)) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Skips matching characters at the end of a region of a Latin-1 encoded
+     * byte array.
+     *
+     * @param latin1 The Latin-1 encoded characters.
+     * @param start The start index of the region, inclusive.
+     * @param end The end index of the region, exclusive.
+     * @return The index after the last character in the region that is not
+     *         matched, or {@code start} if all characters are matched.
+     * @throws IndexOutOfBoundsException If the region is out of bounds.
+     */
+    public int trimEnd(byte[] latin1, int start, int end) {
+        while (end > start && matchesLatin1(latin1[end - 1] & 0xFF)) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Determines whether a character beyond Latin-1 is matched.
+     *
+     * @param c The character, which is beyond Latin-1.
+     * @return {@code true} if the character is matched, otherwise {@code false}.
+     */
+    abstract boolean matchesOther(char c);
+
+    private boolean matchesLatin1(int c) {
+        return (latin1Bits[c >>> 6] & 1L << c) != 0;
+    }
+
+    private static long[] latin1Whitespaces() {
+        long[] latin1Bits = new long[LATIN1_LIMIT / 64];
+        for (char c = 0; c < LATIN1_LIMIT; c++) {
+            if (Character.isWhitespace(c)) {
+                latin1Bits[c >>> 6] |= 1L << c;
+            }
+        }
+        return latin1Bits;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of metadata computed per class, such as introspection results.
+ * <p>
+ * Values are stored with {@link ClassValue}, so the cache does not prevent
+ * classes or their class loaders from being unloaded, even if the values
+ * refer to the classes. Optionally the cache can be bounded, in which case
+ * the values computed earliest are evicted when the maximum size is exceeded.
+ * The numbers of hits, misses and evictions are counted for monitoring.
+ * <p>
+ * Subclasses define how a value is computed by implementing {@link
+ * #computeValue(Class)}. Class caches are thread-safe.
+ *
+ * @param <V> The type of the cached values.
+ *
+ * @author Zhao Yi
+ */
+public abstract class ClassCache<V> {
+    private ClassValue<Entry<V>> classValue;
+    // The classes whose values are cached, in the order they were cached.
+    // Guarded by itself.
+    private Set<ClassRef> classRefs;
+    private ReferenceQueue<Class<?>> referenceQueue;
+    private volatile int size;
+    private volatile int maximumSize;
+    private LongAdder requestCount;
+    private LongAdder missCount;
+    private LongAdder evictionCount;
+
+    /**
+     * Constructs a new unbounded class cache.
+     */
+    protected ClassCache() {
+        this(-1);
+    }
+
+    /**
+     * Constructs a new class cache with the specified maximum size.
+     *
+     * @param maximumSize The maximum number of cached values. If it is
+     *        negative, no limitation is applied.
+     */
+    protected ClassCache(int maximumSize) {
+        classValue = new ClassValue<Entry<V>>() {
+            @Override
+            protected Entry<V> computeValue(Class<?> c) {
+                missCount.increment();
+                return new Entry<>(ClassCache.this.computeValue(c));
+            }
+        };
+        classRefs = new LinkedHashSet<>();
+        referenceQueue = new ReferenceQueue<>();
+        this.maximumSize = maximumSize;
+        requestCount = new LongAdder();
+        missCount = new LongAdder();
+        evictionCount = new LongAdder();
+    }
+
+    /**
+     * Returns the value for the specified class. If the value has not been
+     * computed, or has been evicted, it is computed with {@link #computeValue}.
+     *
+     * @param c The class for which to get the value.
+     * @return The value for the class.
+     */
+    public V get(Class<?> c) {
+        requestCount.increment();
+        Entry<V> entry = classValue.get(c);
+        // Only the value retained by the class value is tracked, even if
+        // several threads have computed values concurrently.
+        if (!entry.tracked) {
+            track(c, entry);
+        } else if (maximumSize >= 0 && size > maximumSize) {
+            synchronized (classRefs) {
+                evict();
+            }
+        }
+        return entry.value;
+    }
+
+    /**
+     * Removes the value for the specified class, so that it will be computed
+     * again the next time it is requested.
+     *
+     * @param c The class for which to remove the value.
+     */
+    public void remove(Class<?> c) {
+        synchronized (classRefs) {
+            classValue.remove(c);
+            classRefs.remove(new ClassRef(c, null));
+            size = classRefs.size();
+        }
+    }
+
+    /**
+     * Removes all cached values.
+     */
+    public void clear() {
+        synchronized (classRefs) {
+            for (ClassRef ref : classRefs) {
+                Class<?> c = ref.get();
+                if (c != null) {
+                    classValue.remove(c);
+                }
+            }
+            classRefs.clear();
+            while (referenceQueue.poll() != null) {
+            }
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns the number of cached values. Values for classes that have been
+     * unloaded are not counted once their classes have been collected.
+     *
+     * @return The number of cached values.
+     */
+    public int size() {
+        synchronized (classRefs) {
+            purge();
+            return size;
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached values.
+     *
+     * @return The maximum number of cached values, or a negative number if
+     *         this cache is unbounded.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of cached values. If there are more values
+     * than the new maximum size, the excess values are evicted when another
+     * value is requested.
+     *
+     * @param maximumSize The maximum number of cached values. If it is
+     *        negative, no limitation is applied.
+     */
+    public void setMaximumSize(int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Returns the number of requests that have been served by cached values.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return requestCount.sum() - missCount.sum();
+    }
+
+    /**
+     * Returns the number of requests that have caused values to be computed.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of values that have been evicted due to the maximum
+     * size, not counting those purged after their classes were unloaded.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Computes the value for the specified class. This method is invoked at
+     * most once per class unless the value is removed or evicted, but may be
+     * invoked concurrently by different threads, in which case only one value
+     * is retained.
+     *
+     * @param c The class for which to compute the value.
+     * @return The value for the class.
+     */
+    protected abstract V computeValue(Class<?> c);
+
+    private void track(Class<?> c, Entry<V> entry) {
+        synchronized (classRefs) {
+            if (entry.tracked) {
+                return;
+            }
+            entry.tracked = true;
+            purge();
+            classRefs.add(new ClassRef(c, referenceQueue));
+            size = classRefs.size();
+            evict();
+        }
+    }
+
+    // Must be called while holding the lock of classRefs.
+    private void evict() {
+        if (maximumSize < 0) {
+            return;
+        }
+        Iterator<ClassRef> it = classRefs.iterator();
+        while (classRefs.size() > maximumSize && it.hasNext()) {
+            Class<?> c = it.next().get();
+            it.remove();
+            if (c != null) {
+                classValue.remove(c);
+                evictionCount.increment();
+            }
+        }
+        size = classRefs.size();
+    }
+
+    // Must be called while holding the lock of classRefs.
+    private void purge() {
+        ClassRef ref;
+        while ((ref = (ClassRef) referenceQueue.poll()) != null) {
+            classRefs.remove(ref);
+        }
+        size = classRefs.size();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private volatile boolean tracked;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    /**
+     * A weak reference to a class, which equals other references to the same
+     * class as long as the class is not collected.
+     */
+    private static class ClassRef extends WeakReference<Class<?>> {
+        private final int hashCode;
+
+        private ClassRef(Class<?> c, ReferenceQueue<Class<?>> queue) {
+            super(c, queue);
+            hashCode = System.identityHashCode(c);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) {
+                return true;
+            }
+            if (!(o instanceof ClassRef)) {
+                return false;
+            }
+            Class<?> c = get();
+            return c != null && c == ((ClassRef) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Describes how objects of a class are deep copied. Plans are computed once
+ * per class and cached.
+ * <ul>
+ * <li>Immutable objects, such as strings, boxed primitives and enumeration
+ * constants, are not copied.
+ * <li>Arrays and common collections are copied element by element.
+ * <li>Objects of other classes that have a no-argument constructor and no
+ * custom serialization methods, and that are not defined by the JDK, are
+ * copied field by field. Transient fields keep the values set by the
+ * constructor.
+ * <li>Other serializable objects are copied by serialization.
+ * </ul>
+ *
+ * @author Zhao Yi
+ */
+abstract class CopyPlan {
+    private static final Set<Class<?>> IMMUTABLE_CLASSES = new HashSet<Class<?>>(Arrays.asList(
+            String.class, Boolean.class, Byte.class, Character.class, Short.class,
+            Integer.class, Long.class, Float.class, Double.class, BigInteger.class,
+            BigDecimal.class, Class.class, Locale.class, URI.class, UUID.class));
+    private static final Set<Class<?>> COLLECTION_CLASSES = new HashSet<Class<?>>(Arrays.asList(
+            ArrayList.class, LinkedList.class, ArrayDeque.class, HashSet.class,
+            LinkedHashSet.class, TreeSet.class, HashMap.class, TreeMap.class));
+    private static final CopyPlan IMMUTABLE = new CopyPlan() {
+        @Override
+        Object copy(Object object, Map<Object, Object> copies) {
+            return object;
+        }
+    };
+    private static final ClassCache<CopyPlan> PLAN_CACHE = new ClassCache<CopyPlan>() {
+        @Override
+        protected CopyPlan computeValue(Class<?> c) {
+            return createPlan(c);
+        }
+    };
+
+    /**
+     * Deep copies an object.
+     *
+     * @param object The object to be copied.
+     * @param copies The map from copied objects to their copies, by identity.
+     * @return The copy.
+     */
+    static Object deepCopy(Object object, Map<Object, Object> copies) {
+        if (object == null) {
+            return null;
+        }
+        CopyPlan plan = PLAN_CACHE.get(object.getClass());
+        if (plan == IMMUTABLE) {
+            return object;
+        }
+        Object copy = copies.get(object);
+        return copy != null ? copy : plan.copy(object, copies);
+    }
+
+    /**
+     * Copies an object, and puts the copy in the map before copying objects
+     * referenced by the object.
+     */
+    abstract Object copy(Object object, Map<Object, Object> copies);
+
+    private static boolean isImmutable(Class<?> c) {
+        return c.isPrimitive() || IMMUTABLE_CLASSES.contains(c) || c.isEnum()
+                || c.getSuperclass() != null && c.getSuperclass().isEnum();
+    }
+
+    private static CopyPlan createPlan(Class<?> c) {
+        if (isImmutable(c)) {
+            return IMMUTABLE;
+        }
+        if (c.isArray()) {
+            return new ArrayPlan(c.getComponentType());
+        }
+        if (COLLECTION_CLASSES.contains(c)) {
+            return new CollectionPlan(c);
+        }
+        CopyPlan plan = FieldPlan.create(c);
+        if (plan != null) {
+            return plan;
+        }
+        return Serializable.class.isAssignableFrom(c)
+                ? new SerializationPlan() : new UnsupportedPlan(c);
+    }
+
+    private static class ArrayPlan extends CopyPlan {
+        private Class<?> componentType;
+        private boolean shallow;
+
+        private ArrayPlan(Class<?> componentType) {
+            this.componentType = componentType;
+            shallow = componentType.isPrimitive()
+                    || isImmutable(componentType) && Modifier.isFinal(componentType.getModifiers());
+        }
+
+        @Override
+        Object copy(Object object, Map<Object, Object> copies) {
+            int length = Array.getLength(object);
+            Object copy = Array.newInstance(componentType, length);
+            copies.put(object, copy);
+            if (shallow) {
+                System.arraycopy(object, 0, copy, 0, length);
+            } else {
+                Object[] elements = (Object[]) object;
+                Object[] copiedElements = (Object[]) copy;
+                for (int i = 0; i < length; i++) {
+                    copiedElements[i] = deepCopy(elements[i], copies);
+                }
+            }
+            return copy;
+        }
+    }
+
+    private static class CollectionPlan extends CopyPlan {
+        private Class<?> collectionClass;
+
+        private CollectionPlan(Class<?> collectionClass) {
+            this.collectionClass = collectionClass;
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object copy(Object object, Map<Object, Object> copies) {
+            if (object instanceof Map) {
+                Map<Object, Object> map = (Map<Object, Object>) object;
+                Map<Object, Object> copy = object instanceof TreeMap
+                        ? new TreeMap<>(((TreeMap) object).comparator())
+                        : new HashMap<>(Math.max(map.size() * 4 / 3 + 1, 16));
+                copies.put(object, copy);
+                for (Map.Entry<Object, Object> e : map.entrySet()) {
+                    copy.put(deepCopy(e.getKey(), copies), deepCopy(e.getValue(), copies));
+                }
+                return copy;
+            }
+
+            Collection<Object> collection = (Collection<Object>) object;
+            Collection<Object> copy;
+            if (collectionClass == ArrayList.class) {
+                copy = new ArrayList<>(collection.size());
+            } else if (collectionClass == HashSet.class) {
+                copy = new HashSet<>(Math.max(collection.size() * 4 / 3 + 1, 16));
+            } else if (collectionClass == TreeSet.class) {
+                copy = new TreeSet<>(((TreeSet) object).comparator());
+            } else {
+                copy = (Collection<Object>) ReflectionUtils.newInstance(collectionClass);
+            }
+            copies.put(object, copy);
+            for (Object element : collection) {
+                copy.add(deepCopy(element, copies));
+            }
+            return copy;
+        }
+    }
+
+    private static class FieldPlan extends CopyPlan {
+        private Constructor<?> constructor;
+        private Field[] fields;
+        private boolean[] shallow;
+
+        private FieldPlan(Constructor<?> constructor, Field[] fields) {
+            this.constructor = constructor;
+            this.fields = fields;
+            shallow = new boolean[fields.length];
+            for (int i = 0; i < fields.length; i++) {
+                Class<?> type = fields[i].getType();
+                shallow[i] = isImmutable(type) && Modifier.isFinal(type.getModifiers());
+            }
+        }
+
+        // Returns null if objects of the class cannot be copied field by field.
+        private static FieldPlan create(Class<?> c) {
+            if (Modifier.isAbstract(c.getModifiers())) {
+                return null;
+            }
+            Constructor<?> constructor;
+            try {
+                constructor = c.getDeclaredConstructor();
+            } catch (NoSuchMethodException ex) {
+                return null;
+            }
+            List<Field> fieldList = new ArrayList<>();
+            for (Class<?> k = c; k != Object.class; k = k.getSuperclass()) {
+                String name = k.getName();
+                if (name.startsWith("java.") || name.startsWith("javax.")
+                        || ReflectionUtils.findDeclaredMethod(k, "writeObject", ObjectOutputStream.class) != null
+                        || ReflectionUtils.findDeclaredMethod(k, "readObject", ObjectInputStream.class) != null
+                        || ReflectionUtils.findDeclaredMethod(k, "writeReplace") != null
+                        || ReflectionUtils.findDeclaredMethod(k, "readResolve") != null) {
+                    return null;
+                }
+                for (Field field : k.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                        fieldList.add(field);
+                    }
+                }
+            }
+            try {
+                ReflectionUtils.makeAccessible(constructor);
+                for (Field field : fieldList) {
+                    ReflectionUtils.makeAccessible(field);
+                }
+            } catch (RuntimeException ex) {
+                // The class is not open for deep reflection.
+                return null;
+            }
+            return new FieldPlan(constructor, fieldList.toArray(new Field[fieldList.size()]));
+        }
+
+        @Override
+        Object copy(Object object, Map<Object, Object> copies) {
+            try {
+                Object copy = constructor.newInstance();
+                copies.put(object, copy);
+                for (int i = 0; i < fields.length; i++) {
+                    Object value = fields[i].get(object);
+                    fields[i].set(copy, shallow[i] ? value : deepCopy(value, copies));
+                }
+                return copy;
+            } catch (ReflectiveOperationException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    private static class SerializationPlan extends CopyPlan {
+        @Override
+        Object copy(Object object, Map<Object, Object> copies) {
+            try {
+                Object copy = ObjectUtils.unmarshal(ObjectUtils.marshal((Serializable) object));
+                copies.put(object, copy);
+                return copy;
+            } catch (ClassNotFoundException | IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    private static class UnsupportedPlan extends CopyPlan {
+        private Class<?> c;
+
+        private UnsupportedPlan(Class<?> c) {
+            this.c = c;
+        }
+
+        @Override
+        Object copy(Object object, Map<Object, Object> copies) {
+            throw new IllegalArgumentException(c + " cannot be copied.");
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Finds delimiters in strings with a search strategy chosen once for the
+ * delimiters. Delimiter matchers are immutable and thread-safe.
+ *
+ * @author Zhao Yi
+ */
+abstract class DelimiterMatcher {
+    /**
+     * Delimiters at least this long are searched with the Boyer-Moore-Horspool
+     * algorithm when compiled; shorter ones are left to {@link String#indexOf},
+     * which is intrinsified by the JVM.
+     */
+    private static final int HORSPOOL_THRESHOLD = 16;
+
+    /**
+     * Returns a matcher for a delimiter that is used only once, without any
+     * precomputation.
+     *
+     * @param delimiter The delimiter.
+     * @return The delimiter matcher.
+     */
+    static DelimiterMatcher of(String delimiter) {
+        return delimiter.length() == 1
+                ? new SingleCharMatcher(delimiter.charAt(0)) : new StringMatcher(delimiter);
+    }
+
+    /**
+     * Returns a matcher for a delimiter that is used repeatedly, which may
+     * precompute search tables for long delimiters.
+     *
+     * @param delimiter The delimiter.
+     * @return The delimiter matcher.
+     */
+    static DelimiterMatcher compile(String delimiter) {
+        return delimiter.length() >= HORSPOOL_THRESHOLD
+                ? new HorspoolMatcher(delimiter) : of(delimiter);
+    }
+
+    /**
+     * Returns a matcher for alternative delimiters that is used repeatedly.
+     * If more than one delimiter matches at the same index, the longest one
+     * is taken.
+     *
+     * @param delimiters The alternative delimiters.
+     * @return The delimiter matcher.
+     * @throws IllegalArgumentException If there is no delimiter, or there are
+     *         multiple delimiters including an empty one.
+     */
+    static DelimiterMatcher compile(Collection<String> delimiters) {
+        if (delimiters.isEmpty()) {
+            throw new IllegalArgumentException("No delimiter is specified.");
+        }
+        if (delimiters.size() == 1) {
+            return compile(delimiters.iterator().next());
+        }
+        for (String delimiter : delimiters) {
+            if (delimiter.isEmpty()) {
+                throw new IllegalArgumentException(
+                        "An empty delimiter cannot have alternatives.");
+            }
+        }
+        return new AnyMatcher(delimiters);
+    }
+
+    /**
+     * Returns whether the delimiter is empty, which breaks strings to single
+     * characters.
+     *
+     * @return {@code true} if the delimiter is empty, otherwise {@code false}.
+     */
+    boolean isEmpty() {
+        return false;
+    }
+
+    /**
+     * Finds the next delimiter in a string.
+     *
+     * @param source The string to be searched.
+     * @param from The index from which to search.
+     * @return The index of the next delimiter, or {@code -1} if not found.
+     */
+    abstract int indexIn(String source, int from);
+
+    /**
+     * Returns the length of the delimiter found at the specified index.
+     *
+     * @param source The string that has been searched.
+     * @param index The index returned by {@link #indexIn}.
+     * @return The length of the delimiter.
+     */
+    abstract int lengthAt(String source, int index);
+
+    private static class SingleCharMatcher extends DelimiterMatcher {
+        private final char delimiter;
+
+        private SingleCharMatcher(char delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        int indexIn(String source, int from) {
+            return source.indexOf(delimiter, from);
+        }
+
+        @Override
+        int lengthAt(String source, int index) {
+            return 1;
+        }
+    }
+
+    private static class StringMatcher extends DelimiterMatcher {
+        private final String delimiter;
+
+        private StringMatcher(String delimiter) {
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return delimiter.isEmpty();
+        }
+
+        @Override
+        int indexIn(String source, int from) {
+            return source.indexOf(delimiter, from);
+        }
+
+        @Override
+        int lengthAt(String source, int index) {
+            return delimiter.length();
+        }
+    }
+
+    private static class HorspoolMatcher extends DelimiterMatcher {
+        private final char[] pattern;
+        // Shifts are indexed by the low byte of characters, so characters
+        // sharing a low byte take the smallest of their shifts.
+        private final int[] shifts = new int[256];
+
+        private HorspoolMatcher(String delimiter) {
+            pattern = delimiter.toCharArray();
+            int last = pattern.length - 1;
+            Arrays.fill(shifts, pattern.length);
+            for (int i = 0; i < last; i++) {
+                shifts[pattern[i] & 0xFF] = last - i;
+            }
+        }
+
+        @Override
+        int indexIn(String source, int from) {
+            int last = pattern.length - 1;
+            int max = source.length() - pattern.length;
+            int i = Math.max(from, 0);
+            while (i <= max) {
+                char c = source.charAt(i + last);
+                if (c == pattern[last]) {
+                    int j = last - 1;
+                    while (j >= 0 && source.charAt(i + j) == pattern[j]) {
+                        j--;
+                    }
+                    if (j < 0) {
+                        return i;
+                    }
+                }
+                i += shifts[c & 0xFF];
+            }
+            return -1;
+        }
+
+        @Override
+        int lengthAt(String source, int index) {
+            return pattern.length;
+        }
+    }
+
+    private static class AnyMatcher extends DelimiterMatcher {
+        private final String[] delimiters;
+        private final char[] firstChars;
+        private final boolean singleChars;
+
+        private AnyMatcher(Collection<String> delimiters) {
+            List<String> sortedDelimiters = new ArrayList<>(delimiters);
+            Collections.sort(sortedDelimiters, new Comparator<String>() {
+                @Override
+                public int compare(String s1, String s2) {
+                    return Integer.compare(s2.length(), s1.length());
+                }
+            });
+            this.delimiters = sortedDelimiters.toArray(new String[sortedDelimiters.size()]);
+            firstChars = new char[this.delimiters.length];
+            boolean singleChars = true;
+            for (int i = 0; i < firstChars.length; i++) {
+                firstChars[i] = this.delimiters[i].charAt(0);
+                singleChars &= this.delimiters[i].length() == 1;
+            }
+            this.singleChars = singleChars;
+        }
+
+        @Override
+        int indexIn(String source, int from) {
+            for (int i = Math.max(from, 0); i < source.length(); i++) {
+                char c = source.charAt(i);
+                for (int j = 0; j < firstChars.length; j++) {
+                    if (firstChars[j] == c
+                            && (singleChars || source.startsWith(delimiters[j], i))) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int lengthAt(String source, int index) {
+            for (String delimiter : delimiters) {
+                if (source.startsWith(delimiter, index)) {
+                    return delimiter.length();
+                }
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A bounded cache of objects keyed by their literal values, such as converted
+ * objects or compiled expressions, so that converting or compiling the same
+ * literal value again is a hash lookup of the string.
+ * <p>
+ * Lookups do not take any lock, since literal caches are typically shared by
+ * all threads. When the cache is full, entries that have not
+ * been used since the previous eviction are evicted first, which approximates
+ * evicting the least recently used ones. The cache may exceed its maximum size
+ * briefly while another thread is evicting entries.
+ * <p>
+ * Only immutable or thread-safe objects should be cached, since they are
+ * shared by all users of the same literal value. Literal caches are
+ * thread-safe.
+ *
+ * @param <T> The type of the cached objects.
+ *
+ * @author Zhao Yi
+ */
+public class LiteralCache<T> {
+    private static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private int maximumSize;
+    private ConcurrentMap<String, Node<T>> nodeMap;
+    private AtomicBoolean evicting;
+
+    /**
+     * Constructs a new literal cache that holds up to 256 objects.
+     */
+    public LiteralCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructs a new literal cache with the specified maximum size.
+     *
+     * @param maximumSize The maximum number of cached objects.
+     * @throws IllegalArgumentException If {@code maximumSize} is not positive.
+     */
+    public LiteralCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid maximum size: " + maximumSize + ".");
+        }
+        this.maximumSize = maximumSize;
+        nodeMap = new ConcurrentHashMap<>();
+        evicting = new AtomicBoolean();
+    }
+
+    /**
+     * Returns the object cached for the specified literal value.
+     *
+     * @param literalValue The literal value.
+     * @return The cached object, or {@code null} if there is none.
+     */
+    public T get(String literalValue) {
+        Node<T> node = nodeMap.get(literalValue);
+        if (node == null) {
+            return null;
+        }
+        // Avoid writing to shared memory if the node is already marked.
+        if (!node.used) {
+            node.used = true;
+        }
+        return node.object;
+    }
+
+    /**
+     * Caches an object for the specified literal value, replacing the object
+     * previously cached for it, if any.
+     *
+     * @param literalValue The literal value.
+     * @param object The object to be cached.
+     */
+    public void put(String literalValue, T object) {
+        nodeMap.put(literalValue, new Node<>(object));
+        if (nodeMap.size() > maximumSize && evicting.compareAndSet(false, true)) {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+
+    // Gives each used entry a second chance by clearing its mark, and evicts
+    // unused ones until a quarter of the capacity is free again, so that
+    // evictions do not happen on every put. Marks are ignored in the second
+    // pass, in case other threads keep marking entries concurrently.
+    private void evict() {
+        int targetSize = maximumSize - maximumSize / 4;
+        for (int pass = 0; pass < 2 && nodeMap.size() > targetSize; pass++) {
+            Iterator<Map.Entry<String, Node<T>>> it = nodeMap.entrySet().iterator();
+            while (nodeMap.size() > targetSize && it.hasNext()) {
+                Node<T> node = it.next().getValue();
+                if (pass == 0 && node.used) {
+                    node.used = false;
+                } else {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the number of cached objects.
+     *
+     * @return The number of cached objects.
+     */
+    public int size() {
+        return nodeMap.size();
+    }
+
+    private static class Node<T> {
+        private final T object;
+        private volatile boolean used;
+
+        private Node(T object) {
+            this.object = object;
+        }
+    }
+}
@@ -17,11 +17,14 @@
 package zhyi.zse.lang;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.IdentityHashMap;
 
 /**
  * Utility Methods for general Java objects.
@@ -34,7 +37,9 @@ public final class ObjectUtils {
 
     /**
      * Marshals a serializable object to a byte array with
-     * {@link ObjectOutputStream}.
+     * {@link ObjectOutputStream}. The marshaled bytes are collected in a buffer
+     * that is reused by the current thread, so only the returned array is
+     * allocated in addition to the object stream.
      *
      * @param serializable The object to be marshaled.
      * @return A byte array representing the marshaled object.
@@ -44,13 +49,66 @@ public final class ObjectUtils {
      * @see ObjectOutputStream#writeObject(Object)
      */
     public static byte[] marshal(Serializable serializable) throws IOException {
-        ByteArrayOutputStream baout = new ByteArrayOutputStream();
-        try (ObjectOutputStream oout = new ObjectOutputStream(baout)) {
-            oout.writeObject(serializable);
-            return baout.toByteArray();
+        ReusableByteArrayOutputStream buffer = ReusableByteArrayOutputStream.acquire();
+        try {
+            marshal(serializable, buffer);
+            return buffer.toByteArray();
+        } finally {
+            buffer.release();
         }
     }
 
+    /**
+     * Marshals a serializable object to an output stream with
+     * {@link ObjectOutputStream}. The output stream is flushed but not closed.
+     *
+     * @param serializable The object to be marshaled.
+     * @param out The output stream to which the object is marshaled.
+     * @throws IOException If the object cannot be marshaled, or an I/O error
+     *         has happened.
+     *
+     * @see ObjectOutputStream#writeObject(Object)
+     */
+    public static void marshal(Serializable serializable, OutputStream out)
+            throws IOException {
+        ObjectOutputStream oout = new ObjectOutputStream(out);
+        oout.writeObject(serializable);
+        oout.flush();
+    }
+
+    /**
+     * Marshals a serializable object to a byte buffer with
+     * {@link ObjectOutputStream}, starting at the buffer's position. The bytes
+     * are written directly to the buffer, which may be a direct buffer, and the
+     * buffer's position is advanced by the number of written bytes.
+     *
+     * @param serializable The object to be marshaled.
+     * @param buffer The byte buffer to which the object is marshaled.
+     * @return The number of written bytes.
+     * @throws IOException If the object cannot be marshaled, or an I/O error
+     *         has happened.
+     * @throws java.nio.BufferOverflowException If the buffer does not have
+     *         enough remaining space.
+     *
+     * @see ObjectOutputStream#writeObject(Object)
+     */
+    public static int marshal(Serializable serializable, final ByteBuffer buffer)
+            throws IOException {
+        int position = buffer.position();
+        marshal(serializable, new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffer.put((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                buffer.put(b, off, len);
+            }
+        });
+        return buffer.position() - position;
+    }
+
     /**
      * Unmarshals the first object from a byte array with {@link ObjectInputStream}.
      *
@@ -64,9 +122,117 @@ public final class ObjectUtils {
      */
     public static Serializable unmarshal(byte[] bytes)
             throws ClassNotFoundException, IOException {
-        try (ObjectInputStream oin = new ObjectInputStream(
-                new ByteArrayInputStream(bytes))) {
-            return (Serializable) oin.readObject();
-        }
+        return unmarshal(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Unmarshals the first object from a region of a byte array with
+     * {@link ObjectInputStream}.
+     *
+     * @param bytes The byte array representing the marshaled object.
+     * @param offset The offset of the marshaled object in the byte array.
+     * @param length The number of bytes of the marshaled object.
+     * @return The first object unmarshaled from the byte array.
+     * @throws ClassNotFoundException If the class of the serialized object
+     *         cannot be found.
+     * @throws IOException If the byte array cannot be unmarshaled,
+     *         or an I/O error has occurred.
+     *
+     * @see ObjectInputStream#readObject()
+     */
+    public static Serializable unmarshal(byte[] bytes, int offset, int length)
+            throws ClassNotFoundException, IOException {
+        return unmarshal(new ByteArrayInputStream(bytes, offset, length));
+    }
+
+    /**
+     * Unmarshals the next object from an input stream with
+     * {@link ObjectInputStream}. The input stream is not closed.
+     * <p>
+     * Since the object stream may read ahead, the input stream should not be
+     * read by others after this method returns.
+     *
+     * @param in The input stream from which the object is unmarshaled.
+     * @return The object unmarshaled from the input stream.
+     * @throws ClassNotFoundException If the class of the serialized object
+     *         cannot be found.
+     * @throws IOException If the input stream cannot be unmarshaled,
+     *         or an I/O error has occurred.
+     *
+     * @see ObjectInputStream#readObject()
+     */
+    public static Serializable unmarshal(InputStream in)
+            throws ClassNotFoundException, IOException {
+        return (Serializable) new ObjectInputStream(in).readObject();
+    }
+
+    /**
+     * Unmarshals the next object from a byte buffer with {@link
+     * ObjectInputStream}, starting at the buffer's position. The bytes are
+     * read directly from the buffer, which may be a direct buffer.
+     * <p>
+     * Since the object stream may read ahead, the buffer's position after this
+     * method returns is not necessarily the end of the marshaled object.
+     *
+     * @param buffer The byte buffer from which the object is unmarshaled.
+     * @return The object unmarshaled from the byte buffer.
+     * @throws ClassNotFoundException If the class of the serialized object
+     *         cannot be found.
+     * @throws IOException If the byte buffer cannot be unmarshaled,
+     *         or an I/O error has occurred.
+     *
+     * @see ObjectInputStream#readObject()
+     */
+    public static Serializable unmarshal(final ByteBuffer buffer)
+            throws ClassNotFoundException, IOException {
+        return unmarshal(new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                len = Math.min(len, buffer.remaining());
+                buffer.get(b, off, len);
+                return len;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        });
+    }
+
+    /**
+     * Deep copies an object graph. Shared references and cycles in the graph
+     * are preserved in the copy.
+     * <p>
+     * Immutable objects such as strings, boxed primitives and enumeration
+     * constants are not copied. Arrays and common collections are copied
+     * element by element. Objects of other classes are copied field by field
+     * if their classes have a no-argument constructor, do not customize
+     * serialization and are not defined by the JDK, in which case transient
+     * fields keep the values set by the constructor. The plan of copying a
+     * class is computed once and cached. Other serializable objects are
+     * copied with serialization, which does not preserve their references to
+     * other objects in the graph.
+     *
+     * @param <T> The object's type.
+     * @param object The object to be copied.
+     * @return The copy, or {@code null} if the object is {@code null}.
+     * @throws IllegalArgumentException If an object in the graph can be
+     *         copied in none of the above ways.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T deepCopy(T object) {
+        return (T) CopyPlan.deepCopy(object, new IdentityHashMap<Object, Object>());
     }
 }
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import zhyi.zse.lang.BeanAccessor.Getter;
+import zhyi.zse.lang.BeanAccessor.Setter;
+
+/**
+ * A compiled path of nested bean properties, such as {@code "a.b[2].c"}.
+ * <p>
+ * A path consists of property names separated by dots, and each property name
+ * can be followed by one or more indices in square brackets to select an element
+ * of an array or a {@link List}. The path is parsed only once, and each step
+ * looks up the compiled accessors of its property in the introspection cache of
+ * {@link BeanUtils}, so evaluating the path involves no reflection once the bean
+ * classes have been introspected, and compiled paths do not pin bean classes.
+ * <p>
+ * Property paths are thread-safe.
+ *
+ * @author Zhao Yi
+ */
+public final class PropertyPath {
+    private static final LiteralCache<PropertyPath>
+            PROPERTY_PATH_CACHE = new LiteralCache<>(1024);
+
+    private String path;
+    private Step[] steps;
+
+    private PropertyPath(String path) {
+        this.path = path;
+        List<String> segments = StringUtils.split(path, ".", false);
+        steps = new Step[segments.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = new Step(path, segments.get(i));
+        }
+    }
+
+    /**
+     * Returns the compiled property path for the specified expression.
+     * Recently compiled paths are cached, so compiling a frequently used
+     * expression again usually returns the same instance. Callers that
+     * evaluate a path repeatedly should keep the compiled path nevertheless,
+     * since the cache is bounded.
+     *
+     * @param path The property path expression, e.g. {@code "a.b[2].c"}.
+     * @return The compiled property path.
+     * @throws IllegalArgumentException If the expression is malformed.
+     */
+    public static PropertyPath compile(String path) {
+        PropertyPath propertyPath = PROPERTY_PATH_CACHE.get(path);
+        if (propertyPath == null) {
+            propertyPath = new PropertyPath(path);
+            PROPERTY_PATH_CACHE.put(path, propertyPath);
+        }
+        return propertyPath;
+    }
+
+    /**
+     * Evaluates this path against the specified root bean.
+     *
+     * @param root The root bean.
+     * @return The value at the end of the path, or {@code null} if the root
+     *         bean or any intermediate value is {@code null}.
+     * @throws IllegalArgumentException If a property on the path is not
+     *         readable.
+     */
+    public Object get(Object root) {
+        Object value = root;
+        for (Step step : steps) {
+            if (value == null) {
+                return null;
+            }
+            value = step.get(value);
+        }
+        return value;
+    }
+
+    /**
+     * Sets a new value at the end of this path. If the last step of the path
+     * has indices, the value is set to the selected array or list element,
+     * otherwise it is set to the last property.
+     *
+     * @param root The root bean.
+     * @param value The new value.
+     * @return {@code true} if the value has been set, or {@code false} if the
+     *         root bean or any intermediate value is {@code null}.
+     * @throws IllegalArgumentException If a property on the path is not
+     *         readable, or the last property is not writable.
+     */
+    public boolean set(Object root, Object value) {
+        Object parent = root;
+        int last = steps.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (parent == null) {
+                return false;
+            }
+            parent = steps[i].get(parent);
+        }
+        if (parent == null) {
+            return false;
+        }
+        return steps[last].set(parent, value);
+    }
+
+    /**
+     * Returns the expression of this property path.
+     *
+     * @return The expression of this property path.
+     */
+    @Override
+    public String toString() {
+        return path;
+    }
+
+    private static Object getElement(Object container, int index) {
+        return container instanceof List
+                ? ((List<?>) container).get(index) : Array.get(container, index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void setElement(Object container, int index, Object element) {
+        if (container instanceof List) {
+            ((List<Object>) container).set(index, element);
+        } else {
+            Array.set(container, index, element);
+        }
+    }
+
+    private static class Step {
+        private String propertyName;
+        private int[] indices;
+
+        private Step(String path, String segment) {
+            int bracket = segment.indexOf('[');
+            propertyName = bracket == -1 ? segment : segment.substring(0, bracket);
+            if (propertyName.isEmpty()) {
+                throw new IllegalArgumentException("Malformed property path: " + path);
+            }
+            List<String> indexLiterals = bracket == -1 ? null
+                    : StringUtils.split(segment.substring(bracket), "]", false);
+            indices = new int[indexLiterals == null ? 0 : indexLiterals.size() - 1];
+            for (int i = 0; i < indices.length; i++) {
+                String indexLiteral = indexLiterals.get(i);
+                try {
+                    if (!indexLiteral.startsWith("[")) {
+                        throw new NumberFormatException();
+                    }
+                    indices[i] = Integer.parseInt(indexLiteral.substring(1));
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException(
+                            "Malformed property path: " + path, ex);
+                }
+            }
+            if (indexLiterals != null
+                    && !indexLiterals.get(indexLiterals.size() - 1).isEmpty()) {
+                throw new IllegalArgumentException("Malformed property path: " + path);
+            }
+        }
+
+        private Object get(Object bean) {
+            Object value = getter(bean.getClass()).get(bean);
+            for (int index : indices) {
+                if (value == null) {
+                    return null;
+                }
+                value = getElement(value, index);
+            }
+            return value;
+        }
+
+        private boolean set(Object bean, Object value) {
+            if (indices.length == 0) {
+                setter(bean.getClass()).set(bean, value);
+                return true;
+            }
+
+            Object container = getter(bean.getClass()).get(bean);
+            int last = indices.length - 1;
+            for (int i = 0; i < last; i++) {
+                if (container == null) {
+                    return false;
+                }
+                container = getElement(container, indices[i]);
+            }
+            if (container == null) {
+                return false;
+            }
+            setElement(container, indices[last], value);
+            return true;
+        }
+
+        private Getter getter(Class<?> beanClass) {
+            Getter getter = BeanUtils.getGetter(beanClass, propertyName);
+            if (getter == null) {
+                throw new IllegalArgumentException(
+                        "Property " + propertyName + " is not readable.");
+            }
+            return getter;
+        }
+
+        private Setter setter(Class<?> beanClass) {
+            Setter setter = BeanUtils.getSetter(beanClass, propertyName);
+            if (setter == null) {
+                throw new IllegalArgumentException(
+                        "Property " + propertyName + " is not writable.");
+            }
+            return setter;
+        }
+    }
+}
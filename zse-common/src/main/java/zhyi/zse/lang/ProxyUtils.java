@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utility methods for creating proxies that dispatch interface methods, such
+ * as listener methods, to methods of a target object.
+ * <p>
+ * If the interface has a single method and the target method is public, the
+ * proxy is a generated class that calls the target method directly. Otherwise,
+ * e.g. for multi-method listeners or private target methods, the proxy is a
+ * {@link Proxy} instance whose method handles are bound to the interface
+ * methods' ordinals when the proxy is created. The proxy class passes the same
+ * {@link Method} instances on every call, so each invocation finds its ordinal
+ * by comparing the method's identity with those seen before, without hashing
+ * or comparing signatures.
+ *
+ * @author Zhao Yi
+ */
+public class ProxyUtils {
+    private static final Lookup LOOKUP = MethodHandles.lookup();
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+    private static final ClassCache<InterfaceMate> INTERFACE_MATE_CACHE
+            = new ClassCache<InterfaceMate>() {
+        @Override
+        protected InterfaceMate computeValue(Class<?> interfaceClass) {
+            return new InterfaceMate(interfaceClass);
+        }
+    };
+
+    private ProxyUtils() {
+    }
+
+    /**
+     * Creates a proxy that implements the specified interface by calling
+     * methods of a target object. Interface methods that are not mapped
+     * do nothing and return {@code null}, {@code false} or zero. This applies
+     * to default methods as well, whose bodies are never run by the proxy;
+     * they can be mapped like abstract methods.
+     * <p>
+     * The proxy's {@link Object#equals equals}, {@link Object#hashCode hashCode}
+     * and {@link Object#toString toString} methods are based on the proxy's
+     * identity. Exceptions thrown by the target methods are propagated
+     * unchanged, except that undeclared checked exceptions are wrapped in
+     * {@link UndeclaredThrowableException}s.
+     *
+     * @param <T> The interface's type.
+     * @param interfaceClass The interface to be implemented.
+     * @param target The object on which to call the target methods, or
+     *        {@code null} if all target methods are static.
+     * @param methodMap The map from interface methods to target methods. Each
+     *        target method must accept the parameters of its interface method.
+     * @return The proxy.
+     * @throws IllegalArgumentException If {@code interfaceClass} is not an
+     *         interface, or a key of {@code methodMap} is not its method.
+     */
+    public static <T> T newProxy(Class<T> interfaceClass,
+            Object target, Map<Method, Method> methodMap) {
+        if (!interfaceClass.isInterface()) {
+            throw new IllegalArgumentException(interfaceClass + " is not an interface.");
+        }
+
+        InterfaceMate im = INTERFACE_MATE_CACHE.get(interfaceClass);
+        MethodHandle[] handles = new MethodHandle[im.methods.length];
+        for (Map.Entry<Method, Method> e : methodMap.entrySet()) {
+            Integer ordinal = im.ordinalMap.get(e.getKey());
+            if (ordinal == null) {
+                throw new IllegalArgumentException(
+                        e.getKey() + " is not a method of " + interfaceClass + ".");
+            }
+            Method targetMethod = e.getValue();
+            if (im.methods.length == 1) {
+                T proxy = spin(interfaceClass, im.methods[0], target, targetMethod);
+                if (proxy != null) {
+                    return proxy;
+                }
+            }
+
+            // The receiver is ignored by the handle of a static method.
+            MethodHandle handle = MethodHandles.insertArguments(
+                    ReflectionUtils.getMethodHandle(targetMethod), 0, target);
+            handles[ordinal] = handle.asSpreader(
+                    Object[].class, targetMethod.getParameterTypes().length);
+        }
+        return interfaceClass.cast(Proxy.newProxyInstance(
+                interfaceClass.getClassLoader(), new Class<?>[] {interfaceClass},
+                new DispatchHandler(im, handles)));
+    }
+
+    // Generates a class that implements the single method of the interface
+    // by calling the target method directly, which is possible only if all
+    // involved classes are public and visible from this class.
+    private static <T> T spin(Class<T> interfaceClass,
+            Method interfaceMethod, Object target, Method targetMethod) {
+        if (target == null || !BeanAccessor.isVisible(interfaceClass)
+                || !BeanAccessor.isLinkable(targetMethod)
+                || !Arrays.equals(interfaceMethod.getParameterTypes(),
+                        targetMethod.getParameterTypes())
+                || interfaceMethod.getReturnType() != void.class) {
+            return null;
+        }
+        try {
+            Class<?> targetClass = targetMethod.getDeclaringClass();
+            MethodHandle implementation = LOOKUP.findVirtual(targetClass,
+                    targetMethod.getName(), MethodType.methodType(
+                            targetMethod.getReturnType(), targetMethod.getParameterTypes()));
+            MethodType interfaceMethodType = MethodType.methodType(
+                    void.class, interfaceMethod.getParameterTypes());
+            return interfaceClass.cast(LambdaMetafactory.metafactory(LOOKUP,
+                    interfaceMethod.getName(),
+                    MethodType.methodType(interfaceClass, targetClass),
+                    interfaceMethodType, implementation, interfaceMethodType)
+                    .getTarget().invoke(target));
+        } catch (Throwable t) {
+            // Fall back to a dynamic proxy.
+            return null;
+        }
+    }
+
+    /**
+     * The abstract and default methods of an interface in a fixed order, and
+     * their ordinals.
+     */
+    private static class InterfaceMate {
+        private Method[] methods;
+        private Map<Method, Integer> ordinalMap;
+        // The method instances passed by the proxy class, by ordinal. They are
+        // recorded on first use; as only their identities are compared, racy
+        // publication is harmless.
+        private Method[] proxyMethods;
+
+        private InterfaceMate(Class<?> interfaceClass) {
+            List<Method> methodList = new ArrayList<>();
+            for (Method method : interfaceClass.getMethods()) {
+                // Redeclared methods of Object are handled by proxies as well.
+                if (!Modifier.isStatic(method.getModifiers()) && ReflectionUtils.findMethod(
+                        Object.class, method.getName(), method.getParameterTypes()) == null) {
+                    methodList.add(method);
+                }
+            }
+            methods = methodList.toArray(new Method[methodList.size()]);
+            ordinalMap = new HashMap<>();
+            for (int i = 0; i < methods.length; i++) {
+                ordinalMap.put(methods[i], i);
+            }
+            proxyMethods = new Method[methods.length];
+        }
+
+        private int ordinalOf(Method method) {
+            for (int i = 0; i < proxyMethods.length; i++) {
+                if (proxyMethods[i] == method) {
+                    return i;
+                }
+            }
+            Integer ordinal = ordinalMap.get(method);
+            if (ordinal == null) {
+                return -1;
+            }
+            proxyMethods[ordinal] = method;
+            return ordinal;
+        }
+    }
+
+    private static class DispatchHandler extends AbstractInvocationHandler {
+        private InterfaceMate interfaceMate;
+        private MethodHandle[] handles;
+
+        private DispatchHandler(InterfaceMate interfaceMate, MethodHandle[] handles) {
+            this.interfaceMate = interfaceMate;
+            this.handles = handles;
+        }
+
+        @Override
+        protected Object invokeOthers(Object proxy, Method method, Object[] args) {
+            int ordinal = interfaceMate.ordinalOf(method);
+            MethodHandle handle = ordinal == -1 ? null : handles[ordinal];
+            if (handle == null) {
+                Class<?> returnType = method.getReturnType();
+                return returnType.isPrimitive() && returnType != void.class
+                        ? Array.get(Array.newInstance(returnType, 1), 0) : null;
+            }
+            try {
+                return (Object) handle.invokeExact(args == null ? NO_ARGUMENTS : args);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable t) {
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+}
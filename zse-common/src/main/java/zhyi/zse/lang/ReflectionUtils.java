@@ -16,24 +16,73 @@
  */
 package zhyi.zse.lang;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Utility methods for reflection.
  * <p>
  * Unlike standard reflective operations, all methods in this class throw
  * {@link RuntimeException}s while errors occur.
+ * <p>
+ * Classes, methods and fields are looked up only once for the same name and
+ * class loader or declaring class, and negative results are cached as well,
+ * so repeating a failed lookup does not walk the class hierarchy or the class
+ * loaders again. The {@code find*} variants return {@code null} instead of
+ * throwing an exception if the target does not exist. Cached methods and
+ * fields are shared by all callers, and cached classes and members do not
+ * prevent their class loaders from being garbage collected. Member lookups
+ * are cached with the class on which they are performed, so a lookup whose
+ * parameter types are not visible from that class's loader, e.g. those of a
+ * plug-in looked up on {@code Object.class}, is not cached.
  *
  * @author Zhao Yi
  */
 public class ReflectionUtils {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final Object[] NO_PARAMETERS = new Object[0];
+    private static final Class<?>[] NO_PARAMETER_TYPES = new Class<?>[0];
+    private static final Object NOT_FOUND = new Object();
+    private static final int METHOD = 0;
+    private static final int DECLARED_METHOD = 1;
+    private static final int FIELD = 2;
+    private static final int DECLARED_FIELD = 3;
+    private static final Map<ClassLoader, ConcurrentMap<String, Object>>
+            CLASS_LOOKUP_MAP = new WeakHashMap<>();
+    private static final ClassCache<ConcurrentMap<MemberKey, Object>> MEMBER_LOOKUP_CACHE
+            = new ClassCache<ConcurrentMap<MemberKey, Object>>() {
+        @Override
+        protected ConcurrentMap<MemberKey, Object> computeValue(Class<?> c) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private static final LongAdder LOOKUP_HIT_COUNT = new LongAdder();
+    private static final LongAdder NEGATIVE_LOOKUP_HIT_COUNT = new LongAdder();
+    private static final LongAdder LOOKUP_MISS_COUNT = new LongAdder();
+    private static final ClassCache<ConcurrentMap<Method, Invoker>> INVOKER_CACHE
+            = new ClassCache<ConcurrentMap<Method, Invoker>>() {
+        @Override
+        protected ConcurrentMap<Method, Invoker> computeValue(Class<?> c) {
+            return new ConcurrentHashMap<>();
+        }
+    };
     private static final Map<Class<?>, Class<?>> PRIMITIVE_MAP = new HashMap<>();
     static {
         PRIMITIVE_MAP.put(void.class, Void.class);
@@ -72,11 +121,7 @@ public class ReflectionUtils {
      * @see Class#forName(String)
      */
     public static Class<?> getClass(String name) {
-        try {
-            return Class.forName(name);
-        } catch (ClassNotFoundException ex) {
-            throw new RuntimeException(ex);
-        }
+        return getClass(name, true, ReflectionUtils.class.getClassLoader());
     }
 
     /**
@@ -91,10 +136,57 @@ public class ReflectionUtils {
      */
     public static Class<?> getClass(String name,
             boolean initialize, ClassLoader loader) {
+        Class<?> c = findClass(name, initialize, loader);
+        if (c == null) {
+            throw new RuntimeException(new ClassNotFoundException(name));
+        }
+        return c;
+    }
+
+    /**
+     * Returns the class represented by the specified FQCN, or {@code null} if
+     * the class cannot be found.
+     *
+     * @param name The fully qualified name of the desired class.
+     * @param initialize Whether the class must be initialized.
+     * @param loader The class loader from which to load the class.
+     * @return The desired class or {@code null}.
+     *
+     * @see Class#forName(String, boolean, ClassLoader)
+     */
+    public static Class<?> findClass(String name,
+            boolean initialize, ClassLoader loader) {
+        ConcurrentMap<String, Object> lookupMap;
+        synchronized (CLASS_LOOKUP_MAP) {
+            lookupMap = CLASS_LOOKUP_MAP.get(loader);
+            if (lookupMap == null) {
+                lookupMap = new ConcurrentHashMap<>();
+                CLASS_LOOKUP_MAP.put(loader, lookupMap);
+            }
+        }
+
+        Object entry = lookupMap.get(name);
+        if (entry == NOT_FOUND) {
+            LOOKUP_HIT_COUNT.increment();
+            NEGATIVE_LOOKUP_HIT_COUNT.increment();
+            return null;
+        } else if (entry != null) {
+            ClassEntry classEntry = (ClassEntry) entry;
+            Class<?> c = classEntry.get();
+            if (c != null && (classEntry.initialized || !initialize)) {
+                LOOKUP_HIT_COUNT.increment();
+                return c;
+            }
+        }
+
+        LOOKUP_MISS_COUNT.increment();
         try {
-            return Class.forName(name, initialize, loader);
+            Class<?> c = Class.forName(name, initialize, loader);
+            lookupMap.put(name, new ClassEntry(c, initialize));
+            return c;
         } catch (ClassNotFoundException ex) {
-            throw new RuntimeException(ex);
+            lookupMap.put(name, NOT_FOUND);
+            return null;
         }
     }
 
@@ -130,11 +222,25 @@ public class ReflectionUtils {
      * @see Class#getField
      */
     public static Field getField(Class<?> c, String name) {
-        try {
-            return c.getField(name);
-        } catch (NoSuchFieldException ex) {
-            throw new RuntimeException(ex);
+        Field f = findField(c, name);
+        if (f == null) {
+            throw new RuntimeException(new NoSuchFieldException(name));
         }
+        return f;
+    }
+
+    /**
+     * Returns a public field of a class, or {@code null} if there is no such
+     * field.
+     *
+     * @param c The class object.
+     * @param name The field name.
+     * @return The desired field or {@code null}.
+     *
+     * @see Class#getField
+     */
+    public static Field findField(Class<?> c, String name) {
+        return (Field) lookupMember(c, FIELD, name, NO_PARAMETER_TYPES);
     }
 
     /**
@@ -148,13 +254,26 @@ public class ReflectionUtils {
      * @see Class#getDeclaredField
      */
     public static Field getDeclaredField(Class<?> c, String name) {
-        try {
-            final Field f = c.getDeclaredField(name);
-            makeAccessible(f);
-            return f;
-        } catch (NoSuchFieldException ex) {
-            throw new RuntimeException(ex);
+        Field f = findDeclaredField(c, name);
+        if (f == null) {
+            throw new RuntimeException(new NoSuchFieldException(name));
         }
+        return f;
+    }
+
+    /**
+     * Returns a declared field of a class, or {@code null} if there is no such
+     * field. If the field is inaccessible, it will be made accessible before
+     * returning.
+     *
+     * @param c The class object.
+     * @param name The field name.
+     * @return The desired field or {@code null}.
+     *
+     * @see Class#getDeclaredField
+     */
+    public static Field findDeclaredField(Class<?> c, String name) {
+        return (Field) lookupMember(c, DECLARED_FIELD, name, NO_PARAMETER_TYPES);
     }
 
     /**
@@ -207,11 +326,28 @@ public class ReflectionUtils {
      */
     public static Method getMethod(Class<?> c,
             String name, Class<?>... parameterTypes) {
-        try {
-            return c.getMethod(name, parameterTypes);
-        } catch (NoSuchMethodException ex) {
-            throw new RuntimeException(ex);
+        Method m = findMethod(c, name, parameterTypes);
+        if (m == null) {
+            throw new RuntimeException(new NoSuchMethodException(
+                    toMethodString(c, name, parameterTypes)));
         }
+        return m;
+    }
+
+    /**
+     * Returns a public method of a class, or {@code null} if there is no such
+     * method.
+     *
+     * @param c The class object.
+     * @param name The method name.
+     * @param parameterTypes The method's parameter types.
+     * @return The desired method or {@code null}.
+     *
+     * @see Class#getMethod
+     */
+    public static Method findMethod(Class<?> c,
+            String name, Class<?>... parameterTypes) {
+        return (Method) lookupMember(c, METHOD, name, parameterTypes);
     }
 
     /**
@@ -227,18 +363,82 @@ public class ReflectionUtils {
      */
     public static Method getDeclaredMethod(Class<?> c,
             String name, Class<?>... parameterTypes) {
-        try {
-            final Method m = c.getDeclaredMethod(name, parameterTypes);
-            makeAccessible(m);
-            return m;
-        } catch (NoSuchMethodException ex) {
-            throw new RuntimeException(ex);
+        Method m = findDeclaredMethod(c, name, parameterTypes);
+        if (m == null) {
+            throw new RuntimeException(new NoSuchMethodException(
+                    toMethodString(c, name, parameterTypes)));
         }
+        return m;
+    }
+
+    /**
+     * Returns a declared method of a class, or {@code null} if there is no
+     * such method. If the method is inaccessible, it will be made accessible
+     * before returning.
+     *
+     * @param c The class object.
+     * @param name The method name.
+     * @param parameterTypes The method's parameter types.
+     * @return The desired method or {@code null}.
+     *
+     * @see Class#getDeclaredMethod
+     */
+    public static Method findDeclaredMethod(Class<?> c,
+            String name, Class<?>... parameterTypes) {
+        return (Method) lookupMember(c, DECLARED_METHOD, name, parameterTypes);
+    }
+
+    /**
+     * Returns the number of class, method and field lookups that have been
+     * served by cached results, including negative ones.
+     *
+     * @return The lookup hit count.
+     */
+    public static long getLookupHitCount() {
+        return LOOKUP_HIT_COUNT.sum();
+    }
+
+    /**
+     * Returns the number of class, method and field lookups that have been
+     * served by cached negative results.
+     *
+     * @return The negative lookup hit count.
+     */
+    public static long getNegativeLookupHitCount() {
+        return NEGATIVE_LOOKUP_HIT_COUNT.sum();
+    }
+
+    /**
+     * Returns the number of class, method and field lookups that have been
+     * resolved by the JVM.
+     *
+     * @return The lookup miss count.
+     */
+    public static long getLookupMissCount() {
+        return LOOKUP_MISS_COUNT.sum();
+    }
+
+    /**
+     * Discards all cached lookup results. This is necessary only if classes
+     * that previously could not be found have become available, for example
+     * after a class loader's search path has been changed.
+     */
+    public static void clearLookupCache() {
+        synchronized (CLASS_LOOKUP_MAP) {
+            CLASS_LOOKUP_MAP.clear();
+        }
+        MEMBER_LOOKUP_CACHE.clear();
     }
 
     /**
      * Invokes a method. If the method is inaccessible, it will be made accessible
      * after invoking this method.
+     * <p>
+     * The method is compiled to a method handle the first time it is invoked,
+     * and later invocations of the same method reuse the handle without access
+     * checks. If the method throws an exception, it is wrapped in an {@link
+     * InvocationTargetException}, which is in turn wrapped in a {@link
+     * RuntimeException}.
      *
      * @param m The method to be invoked.
      * @param o The object from which to invoke the method, or {@code null}
@@ -248,11 +448,74 @@ public class ReflectionUtils {
      *         method.
      */
     public static Object invoke(Method m, Object o, Object... paramters) {
+        if (paramters == null) {
+            paramters = NO_PARAMETERS;
+        }
+        Invoker invoker = getInvoker(m, paramters.length);
         try {
-            makeAccessible(m);
-            return m.invoke(o, paramters);
-        } catch (ReflectiveOperationException ex) {
-            throw new RuntimeException(ex);
+            return (Object) invoker.spreader.invokeExact(o, paramters);
+        } catch (Throwable t) {
+            throw invoker.wrap(t, o, paramters);
+        }
+    }
+
+    /**
+     * Invokes a method that has no parameters. This method is a variant of
+     * {@link #invoke invoke} that does not allocate a parameter array.
+     *
+     * @param m The method to be invoked.
+     * @param o The object from which to invoke the method, or {@code null}
+     *        for a static method.
+     * @return The value returned from the method, or {@code null} for a void
+     *         method.
+     */
+    public static Object invoke0(Method m, Object o) {
+        Invoker invoker = getInvoker(m, 0);
+        try {
+            return (Object) invoker.handle.invokeExact(o);
+        } catch (Throwable t) {
+            throw invoker.wrap(t, o);
+        }
+    }
+
+    /**
+     * Invokes a method that has one parameter. This method is a variant of
+     * {@link #invoke invoke} that does not allocate a parameter array.
+     *
+     * @param m The method to be invoked.
+     * @param o The object from which to invoke the method, or {@code null}
+     *        for a static method.
+     * @param p The parameter for the method call.
+     * @return The value returned from the method, or {@code null} for a void
+     *         method.
+     */
+    public static Object invoke1(Method m, Object o, Object p) {
+        Invoker invoker = getInvoker(m, 1);
+        try {
+            return (Object) invoker.handle.invokeExact(o, p);
+        } catch (Throwable t) {
+            throw invoker.wrap(t, o, p);
+        }
+    }
+
+    /**
+     * Invokes a method that has two parameters. This method is a variant of
+     * {@link #invoke invoke} that does not allocate a parameter array.
+     *
+     * @param m The method to be invoked.
+     * @param o The object from which to invoke the method, or {@code null}
+     *        for a static method.
+     * @param p1 The first parameter for the method call.
+     * @param p2 The second parameter for the method call.
+     * @return The value returned from the method, or {@code null} for a void
+     *         method.
+     */
+    public static Object invoke2(Method m, Object o, Object p1, Object p2) {
+        Invoker invoker = getInvoker(m, 2);
+        try {
+            return (Object) invoker.handle.invokeExact(o, p1, p2);
+        } catch (Throwable t) {
+            throw invoker.wrap(t, o, p1, p2);
         }
     }
 
@@ -306,4 +569,203 @@ public class ReflectionUtils {
             });
         }
     }
+
+    /**
+     * Returns the cached method handle of the specified method. The handle
+     * is of generic type, taking the target object followed by the parameters.
+     *
+     * @param m The method.
+     * @return The method handle.
+     */
+    static MethodHandle getMethodHandle(Method m) {
+        return getInvoker(m, m.getParameterTypes().length).handle;
+    }
+
+    private static Invoker getInvoker(Method m, int parameterCount) {
+        ConcurrentMap<Method, Invoker> invokerMap = INVOKER_CACHE.get(m.getDeclaringClass());
+        Invoker invoker = invokerMap.get(m);
+        if (invoker == null) {
+            invoker = new Invoker(m);
+            Invoker existingInvoker = invokerMap.putIfAbsent(m, invoker);
+            if (existingInvoker != null) {
+                invoker = existingInvoker;
+            }
+        }
+        if (invoker.parameterCount != parameterCount) {
+            throw new IllegalArgumentException("Wrong number of arguments for "
+                    + m + ": " + parameterCount + ".");
+        }
+        return invoker;
+    }
+
+    /**
+     * A method compiled to a method handle of generic type, which takes the
+     * target object followed by the parameters.
+     */
+    private static class Invoker {
+        private Method method;
+        private int parameterCount;
+        private MethodHandle handle;
+        private MethodHandle spreader;
+
+        private Invoker(Method m) {
+            method = m;
+            parameterCount = m.getParameterTypes().length;
+            makeAccessible(m);
+            try {
+                handle = LOOKUP.unreflect(m);
+            } catch (IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+            if (Modifier.isStatic(m.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(MethodType.genericMethodType(parameterCount + 1));
+            spreader = handle.asSpreader(Object[].class, parameterCount);
+        }
+
+        // Exceptions are reported as Method.invoke does. A method handle
+        // fails with the same exceptions for bad arguments as the target
+        // method may throw, so the arguments are checked only on failure.
+        private RuntimeException wrap(Throwable t, Object o, Object... paramters) {
+            if (t instanceof ClassCastException || t instanceof NullPointerException) {
+                if (!Modifier.isStatic(method.getModifiers())) {
+                    if (o == null) {
+                        return (NullPointerException) t;
+                    } else if (!method.getDeclaringClass().isInstance(o)) {
+                        return new IllegalArgumentException(
+                                "Object is not an instance of declaring class.", t);
+                    }
+                }
+                Class<?>[] parameterTypes = method.getParameterTypes();
+                for (int i = 0; i < parameterTypes.length; i++) {
+                    Object p = paramters[i];
+                    if (p == null ? parameterTypes[i].isPrimitive()
+                            : !ReflectionUtils.wrap(parameterTypes[i]).isInstance(p)) {
+                        return new IllegalArgumentException(
+                                "Argument type mismatch.", t);
+                    }
+                }
+            }
+            return new RuntimeException(new InvocationTargetException(t));
+        }
+    }
+
+    private static Object lookupMember(Class<?> c,
+            int kind, String name, Class<?>[] parameterTypes) {
+        if (parameterTypes == null) {
+            parameterTypes = NO_PARAMETER_TYPES;
+        }
+        ConcurrentMap<MemberKey, Object> lookupMap = MEMBER_LOOKUP_CACHE.get(c);
+        Object member = lookupMap.get(new MemberKey(kind, name, parameterTypes));
+        if (member != null) {
+            LOOKUP_HIT_COUNT.increment();
+            if (member == NOT_FOUND) {
+                NEGATIVE_LOOKUP_HIT_COUNT.increment();
+                return null;
+            }
+            return member;
+        }
+
+        LOOKUP_MISS_COUNT.increment();
+        try {
+            switch (kind) {
+                case METHOD:
+                    member = c.getMethod(name, parameterTypes);
+                    break;
+                case DECLARED_METHOD:
+                    Method m = c.getDeclaredMethod(name, parameterTypes);
+                    makeAccessible(m);
+                    member = m;
+                    break;
+                case FIELD:
+                    member = c.getField(name);
+                    break;
+                default:
+                    Field f = c.getDeclaredField(name);
+                    makeAccessible(f);
+                    member = f;
+            }
+        } catch (NoSuchMethodException | NoSuchFieldException ex) {
+            member = NOT_FOUND;
+        }
+        // The key keeps a copy of the parameter types that callers cannot change.
+        if (isVisible(c.getClassLoader(), parameterTypes)) {
+            lookupMap.put(new MemberKey(kind, name, parameterTypes.clone()), member);
+        }
+        return member == NOT_FOUND ? null : member;
+    }
+
+    // Whether the classes are defined by the loader or its ancestors, in which
+    // case caching them with a class of the loader keeps no other loader alive.
+    private static boolean isVisible(ClassLoader loader, Class<?>[] classes) {
+        for (Class<?> c : classes) {
+            ClassLoader classLoader = c == null ? null : c.getClassLoader();
+            if (classLoader == null) {
+                continue;
+            }
+            ClassLoader l = loader;
+            while (l != null && l != classLoader) {
+                l = l.getParent();
+            }
+            if (l == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String toMethodString(Class<?> c,
+            String name, Class<?>[] parameterTypes) {
+        StringBuilder sb = new StringBuilder(c.getName()).append('.').append(name).append('(');
+        if (parameterTypes != null) {
+            for (int i = 0; i < parameterTypes.length; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(parameterTypes[i] == null ? "null" : parameterTypes[i].getName());
+            }
+        }
+        return sb.append(')').toString();
+    }
+
+    /**
+     * A cached class. It is weakly referenced because a class refers to its
+     * class loader, which must not be kept alive by the cache.
+     */
+    private static class ClassEntry extends WeakReference<Class<?>> {
+        private boolean initialized;
+
+        private ClassEntry(Class<?> c, boolean initialized) {
+            super(c);
+            this.initialized = initialized;
+        }
+    }
+
+    private static class MemberKey {
+        private int kind;
+        private String name;
+        private Class<?>[] parameterTypes;
+
+        private MemberKey(int kind, String name, Class<?>[] parameterTypes) {
+            this.kind = kind;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof MemberKey)) {
+                return false;
+            }
+            MemberKey k = (MemberKey) o;
+            return kind == k.kind && name.equals(k.name)
+                    && Arrays.equals(parameterTypes, k.parameterTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * kind + name.hashCode()) * 31 + Arrays.hashCode(parameterTypes);
+        }
+    }
 }
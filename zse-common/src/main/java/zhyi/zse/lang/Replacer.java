@@ -0,0 +1,241 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Replaces multiple target strings in a single pass, using an Aho-Corasick
+ * automaton compiled once from a map of target strings to their replacements.
+ * <p>
+ * Targets are matched from left to right. If several targets match at the
+ * same position, the longest one is replaced; matches do not overlap, and
+ * replacements are not matched again. For example, replacing {@code "he"}
+ * with {@code "she"} and {@code "she"} with {@code "he"} in {@code "she said
+ * he did"} yields {@code "he said she did"}.
+ * <p>
+ * Replacers are immutable and thread-safe.
+ *
+ * @author Zhao Yi
+ */
+public final class Replacer {
+    private static final int BUFFER_SIZE = 8192;
+
+    // States of the automaton; state 0 is the root. Children of each state
+    // are sorted by their labels.
+    private final char[][] labels;
+    private final int[][] children;
+    private final int[] failures;
+    private final int[] depths;
+    // The state of the longest target that is a suffix of each state, or -1.
+    private final int[] outputs;
+    private final String[] replacements;
+
+    /**
+     * Constructs a new replacer.
+     *
+     * @param replacementMap The map from target strings to their replacements.
+     * @throws IllegalArgumentException If a target string is empty.
+     */
+    public Replacer(Map<String, String> replacementMap) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<String> replacementList = new ArrayList<>();
+        List<Integer> depthList = new ArrayList<>();
+        trie.add(new TreeMap<Character, Integer>());
+        replacementList.add(null);
+        depthList.add(0);
+        for (Map.Entry<String, String> e : replacementMap.entrySet()) {
+            String target = e.getKey();
+            if (target.isEmpty()) {
+                throw new IllegalArgumentException("The target string is empty.");
+            }
+            int state = 0;
+            for (int i = 0; i < target.length(); i++) {
+                Integer child = trie.get(state).get(target.charAt(i));
+                if (child == null) {
+                    child = trie.size();
+                    trie.add(new TreeMap<Character, Integer>());
+                    replacementList.add(null);
+                    depthList.add(i + 1);
+                    trie.get(state).put(target.charAt(i), child);
+                }
+                state = child;
+            }
+            replacementList.set(state, e.getValue());
+        }
+
+        int stateCount = trie.size();
+        labels = new char[stateCount][];
+        children = new int[stateCount][];
+        depths = new int[stateCount];
+        replacements = replacementList.toArray(new String[stateCount]);
+        for (int state = 0; state < stateCount; state++) {
+            TreeMap<Character, Integer> childMap = trie.get(state);
+            labels[state] = new char[childMap.size()];
+            children[state] = new int[childMap.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> e : childMap.entrySet()) {
+                labels[state][i] = e.getKey();
+                children[state][i] = e.getValue();
+                i++;
+            }
+            depths[state] = depthList.get(state);
+        }
+
+        // Compute failure links and outputs in breadth-first order, so that
+        // those of shallower states are ready when they are referred to.
+        failures = new int[stateCount];
+        outputs = new int[stateCount];
+        outputs[0] = -1;
+        Queue<Integer> queue = new ArrayDeque<>();
+        queue.add(0);
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < labels[state].length; i++) {
+                int child = children[state][i];
+                int failure = 0;
+                if (state != 0) {
+                    failure = transit(failures[state], labels[state][i]);
+                }
+                failures[child] = failure;
+                outputs[child] = replacements[child] != null ? child : outputs[failure];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Replaces all target strings in a string.
+     *
+     * @param source The source string.
+     * @return The resulting string.
+     */
+    public String replace(String source) {
+        StringBuilder sb = new StringBuilder(source.length() + 16);
+        replace(source, 0, sb, true);
+        return sb.toString();
+    }
+
+    /**
+     * Replaces all target strings in the characters read from a reader, and
+     * writes the result to a writer. Characters are written as soon as they
+     * are known not to be part of a target string, so only a few characters
+     * are held in memory, regardless of the size of the input.
+     * <p>
+     * Neither the reader nor the writer is closed.
+     *
+     * @param reader The reader from which the source characters are read.
+     * @param writer The writer to which the result is written.
+     * @throws IOException If an I/O error occurs.
+     */
+    public void replace(Reader reader, Writer writer) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder source = new StringBuilder(BUFFER_SIZE);
+        StringBuilder result = new StringBuilder(BUFFER_SIZE + 16);
+        int n;
+        while ((n = reader.read(buffer)) != -1) {
+            source.append(buffer, 0, n);
+            int pending = replace(source, 0, result, false);
+            source.delete(0, pending);
+            writer.append(result);
+            result.setLength(0);
+        }
+        replace(source, 0, result, true);
+        writer.append(result);
+    }
+
+    /**
+     * Replaces target strings in a character sequence, starting at the
+     * specified index.
+     *
+     * @param source The source characters.
+     * @param from The index from which to replace.
+     * @param sb The string builder to which the result is appended.
+     * @param last Whether the source characters are the last ones. If not,
+     *         characters that may be part of a target string continuing in the
+     *         following characters are not appended.
+     * @return The index of the first character that is not appended.
+     */
+    private int replace(CharSequence source, int from, StringBuilder sb, boolean last) {
+        int length = source.length();
+        int copyFrom = from;
+        int state = 0;
+        int candidate = -1;
+        int candidateStart = 0;
+        int candidateEnd = 0;
+        int i = from;
+        while (true) {
+            if (i == length) {
+                if (candidate == -1 || !last) {
+                    break;
+                }
+            } else {
+                state = transit(state, source.charAt(i++));
+                int output = outputs[state];
+                if (output != -1) {
+                    int start = i - depths[output];
+                    if (candidate == -1 || start < candidateStart
+                            || start == candidateStart && i > candidateEnd) {
+                        candidate = output;
+                        candidateStart = start;
+                        candidateEnd = i;
+                    }
+                }
+                // A longer or earlier match is still possible only if the
+                // current state reaches back to the candidate.
+                if (candidate == -1 || i - depths[state] <= candidateStart) {
+                    continue;
+                }
+            }
+
+            sb.append(source, copyFrom, candidateStart).append(replacements[candidate]);
+            copyFrom = candidateEnd;
+            i = candidateEnd;
+            state = 0;
+            candidate = -1;
+        }
+
+        // Hold back both the candidate and whatever the current state reaches
+        // back to, since a longer match may start before the candidate.
+        int pending = last ? length : candidate != -1
+                ? Math.min(candidateStart, i - depths[state]) : i - depths[state];
+        sb.append(source, copyFrom, pending);
+        return pending;
+    }
+
+    private int transit(int state, char c) {
+        while (true) {
+            int i = Arrays.binarySearch(labels[state], c);
+            if (i >= 0) {
+                return children[state][i];
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures[state];
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * A byte array output stream that is reused by the current thread, so that
+ * collecting bytes repeatedly, e.g. for marshaling objects, does not allocate
+ * a new buffer each time.
+ * <p>
+ * A buffer is obtained with {@link #acquire()} and must be given back with
+ * {@link #release()} when its content is no longer needed, typically in a
+ * {@code finally} block. If the thread's buffer is already in use by a nested
+ * operation, or has grown larger than 64 KiB, a fresh buffer is used instead
+ * so that neither the content is corrupted nor a large array is retained.
+ * Reusable buffers must not be shared by threads.
+ *
+ * @author Zhao Yi
+ */
+public final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+    private static final ThreadLocal<ReusableByteArrayOutputStream> BUFFER
+            = new ThreadLocal<ReusableByteArrayOutputStream>() {
+        @Override
+        protected ReusableByteArrayOutputStream initialValue() {
+            return new ReusableByteArrayOutputStream();
+        }
+    };
+
+    private boolean inUse;
+
+    private ReusableByteArrayOutputStream() {
+        super(256);
+    }
+
+    /**
+     * Acquires an empty buffer for the current thread.
+     *
+     * @return The buffer.
+     */
+    public static ReusableByteArrayOutputStream acquire() {
+        ReusableByteArrayOutputStream buffer = BUFFER.get();
+        if (buffer.inUse) {
+            buffer = new ReusableByteArrayOutputStream();
+        }
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    /**
+     * Releases this buffer, discarding its content.
+     */
+    public void release() {
+        reset();
+        inUse = false;
+        if (buf.length > MAX_RETAINED_SIZE && BUFFER.get() == this) {
+            BUFFER.remove();
+        }
+    }
+
+    /**
+     * Returns the internal array of this buffer without copying it. Only the
+     * first {@link #size()} bytes are valid, and the array may be modified
+     * or replaced by further writes.
+     *
+     * @return The internal array.
+     */
+    public byte[] array() {
+        return buf;
+    }
+}
@@ -0,0 +1,288 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.text.MessageFormat;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.ResourceBundle;
+import zhyi.zse.i18n.FallbackLocaleControl;
+import zhyi.zse.lang.StringUtils.DelimitationStyle;
+
+/**
+ * Lazily splits a string in the same way as {@link StringUtils#split(String,
+ * String, DelimitationStyle, boolean, int)}, finding each segment only when
+ * it is requested.
+ * <p>
+ * Segments can be consumed as strings with {@link #next()}, or without any
+ * allocation by calling {@link #nextSegment()} and reading the bounds of the
+ * current segment from {@link #start()} and {@link #end()}, for example:
+ * <pre>
+ * SplitIterator it = new SplitIterator(source, ",", true);
+ * while (it.nextSegment()) {
+ *     int value = intConverter.parseInt(source, it.start(), it.end());
+ *     ...
+ * }
+ * </pre>
+ * Split iterators are not thread-safe. To split many strings with the same
+ * rule, create them from a {@link Splitter}.
+ *
+ * @author Zhao Yi
+ */
+public final class SplitIterator implements Iterator<String> {
+    private String source;
+    private DelimiterMatcher delimiter;
+    private DelimitationStyle style;
+    private boolean trim;
+    private boolean limited;
+    private int limit;
+    private boolean whole;
+    private int searchFrom;
+    private int delimiterLength;
+    private boolean over;
+    private boolean done;
+    private boolean pending;
+    private int start = -1;
+    private int end = -1;
+
+    /**
+     * Constructs a new split iterator with {@link
+     * DelimitationStyle#IGNORE_DELIMITER IGNORE_DELIMITER} delimitation style
+     * and no limitation.
+     *
+     * @param source The source string to be split.
+     * @param delimiter The delimiter string used to split the source string.
+     * @param trim Whether each segment should be trimmed.
+     */
+    public SplitIterator(String source, String delimiter, boolean trim) {
+        this(source, delimiter, DelimitationStyle.IGNORE_DELIMITER, trim, -1);
+    }
+
+    /**
+     * Constructs a new split iterator.
+     *
+     * @param source The source string to be split.
+     * @param delimiter The delimiter string used to split the source string.
+     * @param style The delimitation style; may be {@code null}, in which case
+     *        {@link DelimitationStyle#IGNORE_DELIMITER IGNORE_DELIMITER} is used.
+     *        Note that {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}
+     *        is not supported.
+     * @param trim Whether each segment should be trimmed.
+     * @param limit The maximum splitting times. If it is {@code 0}, the only
+     *        segment is the source string. If it is negative, no limitation
+     *        is applied.
+     * @throws IllegalArgumentException If the delimitation style is
+     *         {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}.
+     */
+    public SplitIterator(String source, String delimiter,
+            DelimitationStyle style, boolean trim, int limit) {
+        this(source, DelimiterMatcher.of(delimiter), checkStyle(style), trim, limit);
+    }
+
+    SplitIterator(String source, DelimiterMatcher delimiter,
+            DelimitationStyle style, boolean trim, int limit) {
+        this.source = source;
+        this.delimiter = delimiter;
+        this.style = style;
+        this.trim = trim;
+        this.limit = limit;
+        limited = limit > 0;
+        whole = limit == 0 || source.isEmpty();
+        // An empty delimiter breaks the source string to single characters,
+        // preceded and followed by empty segments.
+        searchFrom = delimiter.isEmpty() ? -1 : 0;
+    }
+
+    /**
+     * Checks that a delimitation style is supported for splitting.
+     *
+     * @param style The delimitation style, or {@code null}.
+     * @return The delimitation style, or {@link DelimitationStyle#IGNORE_DELIMITER
+     *         IGNORE_DELIMITER} if it is {@code null}.
+     * @throws IllegalArgumentException If the delimitation style is
+     *         {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}.
+     */
+    static DelimitationStyle checkStyle(DelimitationStyle style) {
+        if (style == DelimitationStyle.INSERT_DELIMITER) {
+            throw new IllegalArgumentException(MessageFormat.format(
+                    ResourceBundle.getBundle("zhyi.zse.lang.StringUtils",
+                            FallbackLocaleControl.EN_US_CONTROL).getString("badDelimitationStyle"),
+                    style.name()));
+        }
+        return style == null ? DelimitationStyle.IGNORE_DELIMITER : style;
+    }
+
+    /**
+     * Advances to the next segment.
+     *
+     * @return {@code true} if there is a next segment, or {@code false} if
+     *         all segments have been iterated.
+     */
+    public boolean nextSegment() {
+        if (pending) {
+            pending = false;
+            return true;
+        }
+        return advance();
+    }
+
+    /**
+     * Returns the start index of the current segment in the source string.
+     *
+     * @return The start index, inclusive.
+     * @throws IllegalStateException If there is no current segment.
+     */
+    public int start() {
+        checkSegment();
+        return start;
+    }
+
+    /**
+     * Returns the end index of the current segment in the source string.
+     *
+     * @return The end index, exclusive.
+     * @throws IllegalStateException If there is no current segment.
+     */
+    public int end() {
+        checkSegment();
+        return end;
+    }
+
+    /**
+     * Returns the current segment as a string.
+     *
+     * @return The current segment.
+     * @throws IllegalStateException If there is no current segment.
+     */
+    public String segment() {
+        checkSegment();
+        return source.substring(start, end);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!pending) {
+            pending = advance();
+        }
+        return pending;
+    }
+
+    @Override
+    public String next() {
+        if (!nextSegment()) {
+            throw new NoSuchElementException();
+        }
+        return segment();
+    }
+
+    /**
+     * Not supported.
+     *
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Not supported.");
+    }
+
+    private boolean advance() {
+        if (done) {
+            return false;
+        }
+
+        int length = source.length();
+        if (whole) {
+            // Like StringUtils.split, the whole source string is not trimmed.
+            start = 0;
+            end = length;
+            done = true;
+            return true;
+        }
+
+        if (delimiter.isEmpty()) {
+            int i = searchFrom++;
+            if (limited && --limit < 0) {
+                start = i;
+                end = length;
+                done = true;
+            } else if (i == -1) {
+                start = 0;
+                end = 0;
+            } else if (i == length) {
+                start = length;
+                end = length;
+                done = true;
+            } else {
+                start = i;
+                end = i + 1;
+            }
+        } else {
+            if (limited && --limit < 0) {
+                over = true;
+            }
+
+            int delimiterIndex;
+            int previousLength = delimiterLength;
+            if (over) {
+                delimiterIndex = length;
+            } else {
+                delimiterIndex = delimiter.indexIn(source, searchFrom);
+                if (delimiterIndex == -1) {
+                    delimiterIndex = length;
+                    over = true;
+                } else {
+                    delimiterLength = delimiter.lengthAt(source, delimiterIndex);
+                }
+            }
+
+            switch (style) {
+                case PREPEND_DELIMITER:
+                    // The first segment does not contain the delimiter unless
+                    // the source string starts with it.
+                    start = searchFrom - previousLength;
+                    end = delimiterIndex;
+                    break;
+                case APPEND_DELIMITER:
+                    // The last segment does not contain the delimiter.
+                    start = searchFrom;
+                    end = over ? length : delimiterIndex + delimiterLength;
+                    break;
+                default:
+                    start = searchFrom;
+                    end = delimiterIndex;
+            }
+
+            if (over) {
+                done = true;
+            } else {
+                searchFrom = delimiterIndex + delimiterLength;
+            }
+        }
+
+        if (trim) {
+            start = CharMatcher.TRIMMABLE.trimStart(source, start, end);
+            end = CharMatcher.TRIMMABLE.trimEnd(source, start, end);
+        }
+        return true;
+    }
+
+    private void checkSegment() {
+        if (start < 0 || pending) {
+            throw new IllegalStateException("No current segment.");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import zhyi.zse.lang.StringUtils.DelimitationStyle;
+
+/**
+ * Splits strings with a rule made up of delimiters, a delimitation style, a
+ * trimming option and the maximum splitting times, which is checked and
+ * compiled once, so that splitting many strings with the same rule avoids
+ * per-call setup.
+ * <p>
+ * Strings are split in the same way as {@link StringUtils#split(String,
+ * String, DelimitationStyle, boolean, int)}. Alternatively, a splitter can
+ * have multiple delimiters, any of which delimits segments; if more than one
+ * delimiter matches at the same index, the longest one is taken. For example,
+ * splitting {@code "a, b;c"} with delimiters {@code ","}, {@code ", "} and
+ * {@code ";"} yields {@code "a", "b", "c"}.
+ * <p>
+ * Splitters are immutable and thread-safe.
+ *
+ * @author Zhao Yi
+ */
+public final class Splitter {
+    private final DelimiterMatcher delimiter;
+    private final DelimitationStyle style;
+    private final boolean trim;
+    private final int limit;
+
+    /**
+     * Constructs a new splitter with {@link DelimitationStyle#IGNORE_DELIMITER
+     * IGNORE_DELIMITER} delimitation style and no limitation.
+     *
+     * @param delimiter The delimiter string used to split source strings.
+     * @param trim Whether each segment should be trimmed.
+     */
+    public Splitter(String delimiter, boolean trim) {
+        this(delimiter, DelimitationStyle.IGNORE_DELIMITER, trim, -1);
+    }
+
+    /**
+     * Constructs a new splitter.
+     *
+     * @param delimiter The delimiter string used to split source strings.
+     * @param style The delimitation style; may be {@code null}, in which case
+     *        {@link DelimitationStyle#IGNORE_DELIMITER IGNORE_DELIMITER} is used.
+     *        Note that {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}
+     *        is not supported.
+     * @param trim Whether each segment should be trimmed.
+     * @param limit The maximum splitting times. If it is {@code 0}, the only
+     *        segment is the source string. If it is negative, no limitation
+     *        is applied.
+     * @throws IllegalArgumentException If the delimitation style is
+     *         {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}.
+     */
+    public Splitter(String delimiter, DelimitationStyle style, boolean trim, int limit) {
+        this(Collections.singleton(delimiter), style, trim, limit);
+    }
+
+    /**
+     * Constructs a new splitter with alternative delimiters.
+     *
+     * @param delimiters The delimiter strings used to split source strings.
+     *        If there are multiple delimiters, none of them may be empty.
+     * @param style The delimitation style; may be {@code null}, in which case
+     *        {@link DelimitationStyle#IGNORE_DELIMITER IGNORE_DELIMITER} is used.
+     *        Note that {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}
+     *        is not supported.
+     * @param trim Whether each segment should be trimmed.
+     * @param limit The maximum splitting times. If it is {@code 0}, the only
+     *        segment is the source string. If it is negative, no limitation
+     *        is applied.
+     * @throws IllegalArgumentException If the delimitation style is
+     *         {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}, or
+     *         there is no delimiter, or there are multiple delimiters including
+     *         an empty one.
+     */
+    public Splitter(Collection<String> delimiters,
+            DelimitationStyle style, boolean trim, int limit) {
+        this.style = SplitIterator.checkStyle(style);
+        delimiter = DelimiterMatcher.compile(delimiters);
+        this.trim = trim;
+        this.limit = limit;
+    }
+
+    /**
+     * Splits a string.
+     *
+     * @param source The source string to be split.
+     * @return The resulting segments as a list of strings.
+     */
+    public List<String> split(String source) {
+        if (limit == 0 || source.isEmpty()) {
+            return Arrays.asList(source);
+        }
+
+        List<String> segments = new ArrayList<>();
+        SplitIterator it = iterator(source);
+        while (it.nextSegment()) {
+            segments.add(it.segment());
+        }
+        return segments;
+    }
+
+    /**
+     * Returns an iterator over the segments of a string.
+     *
+     * @param source The source string to be split.
+     * @return The split iterator.
+     */
+    public SplitIterator iterator(String source) {
+        return new SplitIterator(source, delimiter, style, trim, limit);
+    }
+}
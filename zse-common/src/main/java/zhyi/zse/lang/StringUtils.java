@@ -16,13 +16,11 @@
  */
 package zhyi.zse.lang;
 
-import java.text.MessageFormat;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
-import java.util.ResourceBundle;
-import zhyi.zse.i18n.FallbackLocaleControl;
 
 /**
  * Utility methods for strings.
@@ -130,105 +128,19 @@ public final class StringUtils {
      * @return The resulting segments as a list of strings.
      * @throws IllegalArgumentException If the delimitation style is
      *         {@link DelimitationStyle#INSERT_DELIMITER INSERT_DELIMITER}.
+     * @see SplitIterator
      */
     public static List<String> split(String source, String delimiter,
             DelimitationStyle style, boolean trim, int limit) {
-        if (style == DelimitationStyle.INSERT_DELIMITER) {
-            throw new IllegalArgumentException(MessageFormat.format(
-                    ResourceBundle.getBundle("zhyi.zse.lang.StringUtils",
-                            FallbackLocaleControl.EN_US_CONTROL).getString("badDelimitationStyle"),
-                    style.name()));
-        }
-
+        SplitIterator it = new SplitIterator(source, delimiter, style, trim, limit);
         if (limit == 0 || source.isEmpty()) {
             return Arrays.asList(source);
         }
 
-        boolean limited = limit > 0;
         List<String> segments = new ArrayList<>();
-
-        // Special processing for an empty dilimiter by breaking the source
-        // string to single characters.
-        if (delimiter.isEmpty()) {
-            int i;
-            for (i = -1; i <= source.length(); i++) {
-                if (limited) {
-                    limit--;
-                    if (limit < 0) {
-                        String lastSegment = source.substring(i);
-                        segments.add(trim ? lastSegment.trim() : lastSegment);
-                        break;
-                    }
-                }
-
-                if (i == -1 || i == source.length()) {
-                    segments.add("");
-                } else {
-                    String segment = String.valueOf(source.charAt(i));
-                    segments.add(trim ? segment.trim() : segment);
-                }
-            }
-            return segments;
+        while (it.nextSegment()) {
+            segments.add(it.segment());
         }
-
-        int searchFrom = 0;
-        int delimiterIndex;
-        int splitFrom;
-        int splitTo;
-        boolean over = false;
-
-        while (true) {
-            if (limited) {
-                limit--;
-                if (limit < 0) {
-                    over = true;
-                }
-            }
-
-            if (over) {
-                delimiterIndex = source.length();
-            } else {
-                delimiterIndex = source.indexOf(delimiter, searchFrom);
-                if (delimiterIndex == -1) {
-                    delimiterIndex = source.length();
-                    over = true;
-                }
-            }
-
-            switch (style) {
-                case PREPEND_DELIMITER:
-                    splitFrom = searchFrom - delimiter.length();
-                    if (splitFrom < 0) {
-                        // The source string doesn't start with the dilimiter,
-                        // and the first segment will not contain the delimiter.
-                        splitFrom = 0;
-                    }
-                    splitTo = delimiterIndex;
-                    break;
-                case APPEND_DELIMITER:
-                    splitFrom = searchFrom;
-                    splitTo = delimiterIndex + delimiter.length();
-                    if (splitTo > source.length()) {
-                        // The last segment will not contain the delimiter.
-                        splitTo = source.length();
-                    }
-                    break;
-                case IGNORE_DELIMITER:
-                default:    // ?!
-                    splitFrom = searchFrom;
-                    splitTo = delimiterIndex;
-            }
-
-            String segment = source.substring(splitFrom, splitTo);
-            segments.add(trim ? segment.trim() : segment);
-
-            if (over) {
-                break;
-            } else {
-                searchFrom = delimiterIndex + delimiter.length();
-            }
-        }
-
         return segments;
     }
 
@@ -273,30 +185,71 @@ public final class StringUtils {
      */
     public static String concat(Collection<? extends Object> sources,
             String delimiter, DelimitationStyle style) {
-        StringBuilder result = new StringBuilder();
-        boolean first = true;
+        // Presize the result, so that joining long lists does not repeatedly
+        // grow the builder.
+        long length = (long) delimiter.length() * sources.size();
         for (Object source : sources) {
+            length += source instanceof CharSequence ? ((CharSequence) source).length() : 16;
+        }
+        StringBuilder result = new StringBuilder((int) Math.min(length, Integer.MAX_VALUE - 8));
+        try {
+            concat(result, sources, delimiter, style);
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Appends the string representations of the objects contained in the
+     * specified collection to an appendable, such as a {@link StringBuilder}
+     * or a {@link java.io.Writer Writer}, with the specified delimiter and
+     * delimitation style. The result is the same as that of {@link
+     * #concat(Collection, String, DelimitationStyle)}, but large results can
+     * be streamed without being held in memory.
+     *
+     * @param <A> The type of the appendable.
+     * @param out The appendable to which the result is appended.
+     * @param sources The source objects to be concatenated.
+     * @param delimiter The delimiter to be inserted between source objects.
+     * @param style The delimitation style; may be {@code null}, in which case
+     *        {@link DelimitationStyle#IGNORE_DELIMITER IGNORE_DELIMITER} is used.
+     * @return The appendable.
+     * @throws IOException If an I/O error occurs.
+     */
+    public static <A extends Appendable> A concat(A out, Collection<? extends Object> sources,
+            String delimiter, DelimitationStyle style) throws IOException {
+        String firstPrefix = "";
+        String prefix = "";
+        String suffix = "";
+        if (style != null) {
             switch (style) {
                 case PREPEND_DELIMITER:
-                    result.append(delimiter).append(source);
+                    firstPrefix = delimiter;
+                    prefix = delimiter;
                     break;
                 case APPEND_DELIMITER:
-                    result.append(source).append(delimiter);
+                    suffix = delimiter;
                     break;
                 case INSERT_DELIMITER:
-                    if (first) {
-                        result.append(source);
-                        first = false;
-                    } else {
-                        result.append(delimiter).append(source);
-                    }
-                    break;
-                case IGNORE_DELIMITER:
-                default:    // ?!
-                    result.append(source);
+                    prefix = delimiter;
             }
         }
-        return result.toString();
+
+        boolean first = true;
+        for (Object source : sources) {
+            String leading = first ? firstPrefix : prefix;
+            if (!leading.isEmpty()) {
+                out.append(leading);
+            }
+            out.append(source instanceof CharSequence
+                    ? (CharSequence) source : String.valueOf(source));
+            if (!suffix.isEmpty()) {
+                out.append(suffix);
+            }
+            first = false;
+        }
+        return out;
     }
 
     /**
@@ -337,6 +290,7 @@ public final class StringUtils {
      * @param limit The maximum replacing times. If it is {@code 0}, the source
      *        string is returned. If if is negative, no limitation is applied.
      * @return The resulting string.
+     * @see Replacer
      */
     public static String replace(String source, String target, String replacement, int limit) {
         if (target.equals(replacement) || limit == 0) {
@@ -344,7 +298,7 @@ public final class StringUtils {
         }
 
         boolean limited = limit > 0;
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(source.length() + 16);
 
         // Special processing for an empty target string by inserting the replacement
         // string between every two characters in the source string.
@@ -357,7 +311,7 @@ public final class StringUtils {
                 if (limited) {
                     limit--;
                     if (limit < 0) {
-                        sb.append(source.substring(i));
+                        sb.append(source, i, source.length());
                         break;
                     }
                 }
@@ -365,7 +319,7 @@ public final class StringUtils {
                 if (i == source.length()) {
                     sb.append(replacement);
                 } else {
-                    sb.append(replacement).append(String.valueOf(source.charAt(i)));
+                    sb.append(replacement).append(source.charAt(i));
                 }
             }
             return sb.toString();
@@ -386,12 +340,12 @@ public final class StringUtils {
             if (targetIndex == -1) {
                 over = true;
             } else {
-                sb.append(source.substring(searchFrom, targetIndex)).append(replacement);
+                sb.append(source, searchFrom, targetIndex).append(replacement);
                 searchFrom = targetIndex + target.length();
             }
 
             if (over) {
-                sb.append(source.substring(searchFrom));
+                sb.append(source, searchFrom, source.length());
                 break;
             }
         }
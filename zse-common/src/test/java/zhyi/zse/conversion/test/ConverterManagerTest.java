@@ -0,0 +1,276 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.conversion.test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.conversion.AbstractConverter;
+import zhyi.zse.conversion.CompactSerializableCodec;
+import zhyi.zse.conversion.Converter;
+import zhyi.zse.conversion.InetAddressConverter;
+import zhyi.zse.conversion.ConverterManager;
+import zhyi.zse.conversion.PrimitiveConverter;
+import zhyi.zse.lang.ObjectUtils;
+
+/**
+ * @author Zhao Yi
+ */
+public class ConverterManagerTest {
+    @Test
+    public void testPrimitiveConverters() {
+        ConverterManager cm = new ConverterManager();
+        PrimitiveConverter.OfInt ic = cm.getIntConverter();
+        Assert.assertEquals(Integer.MIN_VALUE, ic.parseInt("-2147483648"));
+        Assert.assertEquals(Integer.MAX_VALUE, ic.parseInt("+2147483647"));
+        for (String s : new String[] {"", "-", "2147483648", "1a"}) {
+            try {
+                ic.parseInt(new StringBuilder(s));
+                Assert.fail();
+            } catch (NumberFormatException ex) {
+            }
+        }
+        Assert.assertEquals("x-1", ic.appendTo(new StringBuilder("x"), -1).toString());
+        Assert.assertEquals(Long.MIN_VALUE,
+                cm.getLongConverter().parseLong("-9223372036854775808"));
+        Assert.assertEquals(1.5, cm.getDoubleConverter().parseDouble("1.5"), 0);
+        Assert.assertTrue(cm.getBooleanConverter().parseBoolean("TRUE"));
+        Assert.assertFalse(cm.getBooleanConverter().parseBoolean("yes"));
+
+        cm.register(int.class, new AbstractConverter<Integer>() {
+            @Override
+            protected Integer asObjectInternal(String literalValue) {
+                return Integer.valueOf(literalValue, 16);
+            }
+
+            @Override
+            protected String asStringInternal(Integer object) {
+                return Integer.toHexString(object);
+            }
+        });
+        Assert.assertEquals(255, cm.getIntConverter().parseInt("ff"));
+        Assert.assertEquals("ff", cm.getIntConverter().appendTo(
+                new StringBuilder(), 255).toString());
+    }
+
+    @Test
+    public void testRegionConversion() throws IOException {
+        ConverterManager cm = new ConverterManager();
+        String source = "12,-7,,true,SECONDS,x";
+        Assert.assertEquals(12, cm.getIntConverter().parseInt(source, 0, 2));
+        Assert.assertEquals(Long.valueOf(-7),
+                cm.getConverter(Long.class).asObject(source, 3, 5));
+        Assert.assertNull(cm.getConverter(Short.class).asObject(source, 6, 6));
+        Assert.assertEquals(Boolean.TRUE,
+                cm.getConverter(Boolean.class).asObject(source, 7, 11));
+        Converter<TimeUnit> tuc = cm.getConverter(TimeUnit.class);
+        Assert.assertEquals(TimeUnit.SECONDS, tuc.asObject(source, 12, 19));
+        Assert.assertEquals('x', (char) cm.getConverter(Character.class).asObject(source, 20, 21));
+        try {
+            cm.getIntConverter().parseInt(source, 20, 22);
+            Assert.fail();
+        } catch (IndexOutOfBoundsException ex) {
+        }
+
+        StringBuilder sb = new StringBuilder();
+        cm.getConverter(Integer.class).appendTo(sb, 42).append(',');
+        cm.getConverter(Integer.class).appendTo(sb, (Integer) null).append(',');
+        tuc.appendTo(sb, TimeUnit.DAYS);
+        Assert.assertEquals("42,,DAYS", sb.toString());
+    }
+
+    @Test
+    public void testHierarchyResolution() {
+        ConverterManager cm = new ConverterManager();
+        @SuppressWarnings("unchecked")
+        Converter<ArrayList<?>> lc
+                = (Converter<ArrayList<?>>) (Converter<?>) cm.getConverter(ArrayList.class);
+        Assert.assertSame(lc, cm.getConverter(ArrayList.class));
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        Assert.assertEquals(list, lc.asObject(lc.asString(list)));
+        Assert.assertEquals(Inet4Address.class,
+                cm.getConverter(Inet4Address.class).asObject("127.0.0.1").getClass());
+        Assert.assertNull(cm.getConverter(Thread.class));
+
+        cm.register(Object.class, new AbstractConverter<Object>() {
+            @Override
+            protected Object asObjectInternal(String literalValue) {
+                return literalValue;
+            }
+
+            @Override
+            protected String asStringInternal(Object object) {
+                return object.toString();
+            }
+        });
+        Assert.assertEquals("", cm.getConverter(Thread.class).asString(null));
+        try {
+            cm.getConverter(Thread.class).asObject("main");
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+        cm.deregister(Object.class);
+        Assert.assertNull(cm.getConverter(Thread.class));
+        Assert.assertSame(cm.getConverter(InetAddress.class), cm.getConverter(InetAddress.class));
+    }
+
+    @Test
+    public void testConvertAll() {
+        ConverterManager cm = new ConverterManager();
+        List<String> literalValues = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            literalValues.add(Integer.toString(i - 500));
+        }
+        for (int threshold : new int[] {Integer.MAX_VALUE, 2}) {
+            cm.setParallelThreshold(threshold);
+            int[] ints = cm.convertAllToInts(literalValues);
+            Integer[] integers = cm.convertAll(int.class,
+                    literalValues.toArray(new String[literalValues.size()]));
+            Assert.assertEquals(1000, ints.length);
+            for (int i = 0; i < ints.length; i++) {
+                Assert.assertEquals(i - 500, ints[i]);
+                Assert.assertEquals(i - 500, (int) integers[i]);
+            }
+            Assert.assertEquals(literalValues, cm.convertAllToStrings(
+                    Integer.class, Arrays.asList(integers)));
+        }
+        Assert.assertEquals(Arrays.asList(1.5, null), cm.convertAll(
+                Double.class, Arrays.asList("1.5", "")));
+        Assert.assertArrayEquals(new long[] {-1, 1},
+                cm.convertAllToLongs(Arrays.asList("-1", "1")));
+    }
+
+    @Test
+    public void testSerializableCodec() throws Exception {
+        CompactSerializableCodec codec = new CompactSerializableCodec();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("repeated ");
+        }
+        String s = sb.toString();
+        byte[] marshaledBytes = ObjectUtils.marshal(s);
+        byte[] encodedBytes = codec.encode(s);
+        Assert.assertTrue(encodedBytes.length < marshaledBytes.length / 10);
+        Assert.assertEquals(s, codec.decode(encodedBytes));
+        Assert.assertEquals(s, codec.decode(marshaledBytes));
+        Assert.assertNull(codec.decode(codec.encode(null)));
+
+        codec.register(Point.class, new CompactSerializableCodec.TypeCodec<Point>() {
+            @Override
+            public void write(Point object, DataOutput out) throws IOException {
+                out.writeInt(object.x);
+                out.writeInt(object.y);
+            }
+
+            @Override
+            public Point read(DataInput in) throws IOException {
+                return new Point(in.readInt(), in.readInt());
+            }
+        });
+        ConverterManager cm = new ConverterManager();
+        cm.setSerializableCodec(codec);
+        Converter<Point> pc = cm.getConverter(Point.class);
+        Point p = pc.asObject(pc.asString(new Point(3, -4)));
+        Assert.assertEquals(3, p.x);
+        Assert.assertEquals(-4, p.y);
+        Assert.assertTrue(codec.encode(p).length < ObjectUtils.marshal(p).length);
+    }
+
+    private static class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private int x;
+        private int y;
+
+        private Point(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    @Test
+    public void testDateTimeConverters() throws IOException {
+        ConverterManager cm = new ConverterManager();
+        Instant instant = Instant.ofEpochSecond(86400);
+        Assert.assertEquals("1970-01-02T00:00:00Z", cm.getConverter(Instant.class).asString(instant));
+        Assert.assertEquals(instant, cm.getConverter(Instant.class).asObject("1970-01-02T00:00:00Z"));
+        Assert.assertEquals(LocalDate.of(2013, 5, 1),
+                cm.getConverter(LocalDate.class).asObject("x2013-05-01x", 1, 11));
+        Assert.assertEquals(Duration.ofMinutes(90),
+                cm.getConverter(Duration.class).asObject("PT1H30M"));
+
+        cm.registerDateTimeFormat(Date.class, "yyyy/MM/dd HH:mm");
+        cm.registerDateTimeFormat(LocalDateTime.class, "yyyy/MM/dd HH:mm");
+        Assert.assertEquals(new Date(86400000), cm.getConverter(Date.class).asObject("1970/01/02 00:00"));
+        Assert.assertEquals("1970/01/02 00:00", cm.getConverter(Date.class)
+                .appendTo(new StringBuilder(), new Date(86400000)).toString());
+        Assert.assertEquals(LocalDateTime.of(2013, 5, 1, 8, 30),
+                cm.getConverter(LocalDateTime.class).asObject("2013/05/01 08:30"));
+        try {
+            cm.registerDateTimeFormat(Duration.class, "HH:mm");
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    @Test
+    public void testLiteralCaches() throws Exception {
+        ConverterManager cm = new ConverterManager();
+        Converter<URL> uc = cm.getConverter(URL.class);
+        Assert.assertSame(uc.asObject("http://example.com/a"), uc.asObject("http://example.com/a"));
+
+        cm.register(InetAddress.class, new InetAddressConverter(false));
+        Converter<InetAddress> ic = cm.getConverter(InetAddress.class);
+        InetAddress address = ic.asObject("192.168.0.1");
+        Assert.assertArrayEquals(new byte[] {(byte) 192, (byte) 168, 0, 1}, address.getAddress());
+        Assert.assertSame(address, ic.asObject("192.168.0.1"));
+        Assert.assertEquals("0:0:0:0:0:0:0:1", ic.asString(ic.asObject("::1")));
+        Assert.assertEquals("0:0:0:0:0:0:0:1", ic.asString(ic.asObject("[::1]")));
+        Assert.assertEquals("0:0:0:0:0:0:0:0", ic.asString(ic.asObject("::")));
+        Assert.assertEquals("fe80:0:0:0:0:0:0:1", ic.asString(ic.asObject("FE80::1")));
+        Assert.assertEquals("1:0:0:0:0:0:0:0", ic.asString(ic.asObject("1::")));
+        Assert.assertEquals("1:2:3:4:5:6:7:8", ic.asString(ic.asObject("1:2:3:4:5:6:7:8")));
+        Assert.assertEquals("64:ff9b:0:0:0:0:102:304",
+                ic.asString(ic.asObject("64:ff9b::1.2.3.4")));
+        Assert.assertEquals("1.2.3.4", ic.asString(ic.asObject("::ffff:1.2.3.4")));
+        for (String s : new String[] {"localhost", "1.2.3", "1.2.3.256", "1.2.3.4.",
+                "host:8080", "abc:8080", ":::", "1:::2", "1::2::3", "1:2:3:4:5:6:7:8:9",
+                "1:2:3:4:5:6:7", "1::2:3:4:5:6:7:8", "12345::", "1:", ":1", "g::1",
+                "1:2:3:4:5:6:7:1.2.3.4", "[::1", "::1.2.3"}) {
+            try {
+                ic.asObject(s);
+                Assert.fail(s);
+            } catch (IllegalArgumentException ex) {
+            }
+        }
+    }
+}
@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.conversion.ConverterManager;
+import zhyi.zse.lang.BeanCopier;
+import zhyi.zse.lang.BeanUtils;
+
+/**
+ * @author Zhao Yi
+ */
+public class BeanUtilsTest {
+    @Test
+    public void testGetSetProperty() {
+        Person person = new Person();
+        BeanUtils.setProperty(person, "name", "Tom");
+        BeanUtils.setProperty(person, "age", 7);
+        Assert.assertEquals("Tom", BeanUtils.getProperty(person, "name"));
+        Assert.assertEquals(7, BeanUtils.getProperty(person, "age"));
+        Assert.assertEquals(Person.class, BeanUtils.getProperty(person, "class"));
+
+        // Methods declared in a non-public class are accessed as well.
+        Secret secret = new Secret();
+        BeanUtils.setProperty(secret, "code", 'x');
+        Assert.assertEquals('x', BeanUtils.getProperty(secret, "code"));
+    }
+
+    @Test
+    public void testIsGetterAndFluentSetter() {
+        Account account = new Account();
+        BeanUtils.setProperty(account, "active", true);
+        Assert.assertTrue(BeanUtils.getBooleanProperty(account, "active"));
+        BeanUtils.setProperty(account, "owner", "Tom");
+        Assert.assertEquals("Tom", BeanUtils.getProperty(account, "owner"));
+        Assert.assertFalse(BeanUtils.isPropertyWritable(Account.class, "balance"));
+    }
+
+    @Test
+    public void testPrimitiveProperty() {
+        Person person = new Person();
+        BeanUtils.setIntProperty(person, "age", 9);
+        Assert.assertEquals(9, BeanUtils.getIntProperty(person, "age"));
+        Assert.assertEquals(9L, BeanUtils.getLongProperty(person, "age"));
+        Assert.assertEquals(9.0, BeanUtils.getDoubleProperty(person, "age"), 0.0);
+
+        Secret secret = new Secret();
+        BeanUtils.setProperty(secret, "code", 'a');
+        Assert.assertEquals(97, BeanUtils.getIntProperty(secret, "code"));
+    }
+
+    @Test
+    public void testCopier() {
+        Person person = new Person();
+        person.setName("Jerry");
+        person.setAge(5);
+
+        BeanCopier<Person, PersonDto> copier = BeanUtils.copier(Person.class, PersonDto.class);
+        Assert.assertEquals(Arrays.asList("name"), copier.getPropertyNames());
+        PersonDto dto = copier.copy(person, new PersonDto());
+        Assert.assertEquals("Jerry", dto.getName());
+        Assert.assertNull(dto.getAge());
+
+        copier = BeanUtils.copier(Person.class, PersonDto.class, new ConverterManager());
+        dto = copier.copy(person, new PersonDto());
+        Assert.assertEquals("Jerry", dto.getName());
+        Assert.assertEquals("5", dto.getAge());
+
+        dto.setAge("");
+        BeanUtils.copier(PersonDto.class, Person.class, new ConverterManager()).copy(dto, person);
+        Assert.assertEquals(5, person.getAge());
+    }
+
+    @Test
+    public void testCopierSkipsInheritedConverters() {
+        // ArrayList is converted as a Serializable, which cannot be trusted
+        // to produce a LinkedList.
+        BeanCopier<ListHolder, LinkedListHolder> copier = BeanUtils.copier(
+                ListHolder.class, LinkedListHolder.class, new ConverterManager());
+        Assert.assertEquals(Collections.emptyList(), copier.getPropertyNames());
+        ListHolder source = new ListHolder();
+        source.setItems(new ArrayList<>(Arrays.asList("a")));
+        Assert.assertNull(copier.copy(source, new LinkedListHolder()).getItems());
+    }
+
+    @Test
+    public void testPopulateWithInheritedConverter() {
+        NumberHolder holder = new NumberHolder();
+        try {
+            BeanUtils.populate(Collections.singletonMap("value", "5"), holder);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+            Assert.assertEquals("Property value cannot be converted from a string.",
+                    ex.getMessage());
+        }
+    }
+
+    @Test
+    public void testMapView() {
+        Person person = new Person();
+        person.setName("Tom");
+        person.setAge(7);
+
+        Map<String, Object> map = BeanUtils.asMap(person);
+        Assert.assertEquals(Arrays.asList("age", "name"), new ArrayList<>(map.keySet()));
+        Assert.assertEquals("Tom", map.get("name"));
+        Assert.assertFalse(map.containsKey("class"));
+        Assert.assertEquals(7, map.put("age", 8));
+        Assert.assertEquals(8, person.getAge());
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("name", "Jerry");
+        properties.put("age", "5");
+        properties.put("unknown", "x");
+        BeanUtils.populate(properties, person);
+        Assert.assertEquals("Jerry", person.getName());
+        Assert.assertEquals(5, person.getAge());
+    }
+
+    @Test
+    public void testPreloadAndIndex() throws IOException {
+        BeanUtils.preload(Arrays.<Class<?>>asList(Person.class, PersonDto.class));
+        StringWriter writer = new StringWriter();
+        BeanUtils.writeIndex(Collections.<Class<?>>singleton(Person.class), writer);
+        String index = writer.toString();
+        Assert.assertTrue(index.startsWith(Person.class.getName() + " "));
+        Assert.assertTrue(index.contains("    setAge(int)\n"));
+
+        // Rebuild the tables from the index.
+        BeanUtils.getIntrospectionCache().remove(Person.class);
+        BeanUtils.loadIndex(new StringReader(index));
+        Person person = new Person();
+        BeanUtils.setProperty(person, "age", 3);
+        Assert.assertEquals(3, BeanUtils.getProperty(person, "age"));
+        Assert.assertTrue(BeanUtils.isPropertyWritable(Person.class, "nickname"));
+    }
+
+    @Test
+    public void testIndexOfChangedClass() throws IOException {
+        // An index of NumberHolder stands for an index of SizedNumberHolder
+        // written before the latter gained its size property. All indexed
+        // methods are still there, but the new one must not be missed.
+        StringWriter writer = new StringWriter();
+        BeanUtils.writeIndex(Collections.<Class<?>>singleton(NumberHolder.class), writer);
+        String index = writer.toString().replace(NumberHolder.class.getName() + " ",
+                SizedNumberHolder.class.getName() + " ");
+        BeanUtils.loadIndex(new StringReader(index));
+        Assert.assertTrue(BeanUtils.isPropertyWritable(SizedNumberHolder.class, "value"));
+        Assert.assertTrue(BeanUtils.isPropertyWritable(SizedNumberHolder.class, "size"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetUnreadableProperty() {
+        BeanUtils.getProperty(new Person(), "nickname");
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public void setNickname(String nickname) {
+        }
+    }
+
+    public static class PersonDto {
+        private String name;
+        private String age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getAge() {
+            return age;
+        }
+
+        public void setAge(String age) {
+            this.age = age;
+        }
+    }
+
+    public static class ListHolder {
+        private ArrayList<String> items;
+
+        public ArrayList<String> getItems() {
+            return items;
+        }
+
+        public void setItems(ArrayList<String> items) {
+            this.items = items;
+        }
+    }
+
+    public static class LinkedListHolder {
+        private LinkedList<String> items;
+
+        public LinkedList<String> getItems() {
+            return items;
+        }
+
+        public void setItems(LinkedList<String> items) {
+            this.items = items;
+        }
+    }
+
+    public static class NumberHolder {
+        private Number value;
+
+        public Number getValue() {
+            return value;
+        }
+
+        public void setValue(Number value) {
+            this.value = value;
+        }
+    }
+
+    public static class SizedNumberHolder extends NumberHolder {
+        private int size;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+    }
+
+    public static class Account {
+        private boolean active;
+        private String owner;
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public String getOwner() {
+            return owner;
+        }
+
+        public Account owner(String owner) {
+            this.owner = owner;
+            return this;
+        }
+
+        public long getBalance() {
+            return 0;
+        }
+
+        public Object balance(long balance) {
+            return this;
+        }
+    }
+
+    private static class Secret {
+        private char code;
+
+        public char getCode() {
+            return code;
+        }
+
+        public void setCode(char code) {
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.CharMatcher;
+
+/**
+ * @author Zhao Yi
+ */
+public class CharMatcherTest {
+    @Test
+    public void testCharSequences() {
+        CharMatcher separators = CharMatcher.anyOf(",;\u3001");
+        String s = " a,b\u3001c;\u00e9 ";
+        Assert.assertEquals(2, separators.indexIn(s));
+        Assert.assertEquals(6, separators.lastIndexIn(s, 0, s.length()));
+        Assert.assertEquals(3, separators.countIn(s));
+        Assert.assertEquals(-1, separators.indexIn(s, 3, 4));
+        Assert.assertTrue(separators.negate().matches('\u00e9'));
+        Assert.assertFalse(separators.negate().matches('\u3001'));
+        Assert.assertSame(separators, separators.negate().negate());
+
+        Assert.assertEquals(1, CharMatcher.TRIMMABLE.trimStart(s, 0, s.length()));
+        Assert.assertEquals(s.length() - 1, CharMatcher.TRIMMABLE.trimEnd(s, 0, s.length()));
+        Assert.assertEquals(3, CharMatcher.TRIMMABLE.trimEnd("   ", 3, 3));
+        Assert.assertTrue(CharMatcher.WHITESPACE.matchesAllOf(" \t\u2003\n"));
+        Assert.assertFalse(CharMatcher.WHITESPACE.matchesAllOf(" x "));
+        Assert.assertTrue(CharMatcher.is('x').matchesNoneOf("abc"));
+        Assert.assertTrue(CharMatcher.inRange('\u3000', '\u30ff').matches('\u3001'));
+    }
+
+    @Test
+    public void testLatin1Bytes() {
+        String s = "\t1;\u00e9;;2  ";
+        byte[] latin1 = s.getBytes(StandardCharsets.ISO_8859_1);
+        CharMatcher semicolon = CharMatcher.is(';');
+        Assert.assertEquals(semicolon.indexIn(s), semicolon.indexIn(latin1, 0, latin1.length));
+        Assert.assertEquals(semicolon.lastIndexIn(s, 0, s.length()),
+                semicolon.lastIndexIn(latin1, 0, latin1.length));
+        Assert.assertEquals(3, semicolon.countIn(latin1, 0, latin1.length));
+        Assert.assertEquals(1, CharMatcher.anyOf("\u00e9").countIn(latin1, 0, latin1.length));
+        Assert.assertEquals(1, CharMatcher.WHITESPACE.trimStart(latin1, 0, latin1.length));
+        Assert.assertEquals(7, CharMatcher.WHITESPACE.trimEnd(latin1, 0, latin1.length));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.ClassCache;
+
+/**
+ * @author Zhao Yi
+ */
+public class ClassCacheTest {
+    @Test
+    public void testCounters() {
+        ClassCache<String> cache = new ClassCache<String>(2) {
+            @Override
+            protected String computeValue(Class<?> c) {
+                return c.getSimpleName();
+            }
+        };
+        Assert.assertEquals("String", cache.get(String.class));
+        Assert.assertEquals("String", cache.get(String.class));
+        Assert.assertEquals("Integer", cache.get(Integer.class));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+
+        // The value computed earliest is evicted.
+        cache.get(Long.class);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        cache.get(String.class);
+        Assert.assertEquals(4, cache.getMissCount());
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        cache.get(Long.class);
+        Assert.assertEquals(5, cache.getMissCount());
+    }
+
+    @Test
+    public void testRemove() {
+        ClassCache<String> cache = new ClassCache<String>(2) {
+            @Override
+            protected String computeValue(Class<?> c) {
+                return c.getSimpleName();
+            }
+        };
+        cache.get(String.class);
+        cache.get(Integer.class);
+        cache.remove(String.class);
+        cache.remove(Long.class);
+        Assert.assertEquals(1, cache.size());
+
+        // The removed value no longer takes a place in the eviction order.
+        cache.get(Long.class);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(0, cache.getEvictionCount());
+        cache.get(Short.class);
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+        cache.get(Long.class);
+        Assert.assertEquals(4, cache.getMissCount());
+        cache.get(Integer.class);
+        Assert.assertEquals(5, cache.getMissCount());
+
+        cache.setMaximumSize(-1);
+        cache.get(String.class);
+        cache.get(Byte.class);
+        Assert.assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testConcurrentComputation() throws Exception {
+        final AtomicInteger computeCount = new AtomicInteger();
+        final ClassCache<Object> cache = new ClassCache<Object>(4) {
+            @Override
+            protected Object computeValue(Class<?> c) {
+                computeCount.incrementAndGet();
+                Thread.yield();
+                return new Object();
+            }
+        };
+        final Class<?>[] classes = {String.class, Integer.class, Long.class,
+                Short.class, Byte.class, Double.class, Float.class, Character.class};
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (int j = 0; j < 1000; j++) {
+                            cache.get(classes[j % classes.length]);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(4, cache.size());
+        Assert.assertEquals(computeCount.get(), cache.getMissCount());
+
+        cache.setMaximumSize(-1);
+        for (Class<?> c : classes) {
+            cache.get(c);
+        }
+        Assert.assertEquals(8, cache.size());
+        cache.setMaximumSize(2);
+        cache.get(String.class);
+        Assert.assertEquals(2, cache.size());
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testPurge() throws Exception {
+        ClassCache<String> cache = new ClassCache<String>() {
+            @Override
+            protected String computeValue(Class<?> c) {
+                return c.getName();
+            }
+        };
+        cache.get(String.class);
+        cache.get(new IsolatingClassLoader().loadClass(Unloadable.class.getName()));
+        Assert.assertEquals(2, cache.size());
+
+        // References to unloaded classes are purged rather than accumulated.
+        for (int i = 0; i < 50 && cache.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, cache.size());
+    }
+
+    public static class Unloadable {
+    }
+
+    private static class IsolatingClassLoader extends ClassLoader {
+        private IsolatingClassLoader() {
+            super(ClassCacheTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            if (!name.equals(Unloadable.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            try (InputStream in = getParent().getResourceAsStream(
+                    name.replace('.', '/') + ".class")) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                }
+                byte[] bytes = out.toByteArray();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException ex) {
+                throw new ClassNotFoundException(name, ex);
+            }
+        }
+    }
+}
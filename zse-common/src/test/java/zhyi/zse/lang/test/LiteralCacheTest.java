@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.LiteralCache;
+
+/**
+ * @author Zhao Yi
+ */
+public class LiteralCacheTest {
+    @Test
+    public void testGetPut() {
+        LiteralCache<Integer> cache = new LiteralCache<>();
+        Assert.assertNull(cache.get("1"));
+        cache.put("1", 1);
+        Assert.assertEquals(Integer.valueOf(1), cache.get("1"));
+        cache.put("1", 2);
+        Assert.assertEquals(Integer.valueOf(2), cache.get("1"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() {
+        LiteralCache<Integer> cache = new LiteralCache<>(8);
+        for (int i = 0; i < 8; i++) {
+            cache.put(Integer.toString(i), i);
+        }
+        Assert.assertEquals(8, cache.size());
+
+        // Used entries survive the first eviction.
+        cache.get("0");
+        cache.get("1");
+        cache.put("8", 8);
+        Assert.assertEquals(6, cache.size());
+        Assert.assertEquals(Integer.valueOf(0), cache.get("0"));
+        Assert.assertEquals(Integer.valueOf(1), cache.get("1"));
+
+        for (int i = 9; i < 100; i++) {
+            cache.put(Integer.toString(i), i);
+            Assert.assertTrue(cache.size() <= 8);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new LiteralCache<>(0);
+    }
+}
@@ -16,7 +16,16 @@
  */
 package zhyi.zse.lang.test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
 import zhyi.zse.lang.ObjectUtils;
@@ -30,5 +39,56 @@ public class ObjectUtilsTest {
         String s = "abc";
         byte[] bytes = ObjectUtils.marshal(s);
         Assert.assertEquals(s, ObjectUtils.unmarshal(bytes));
+
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        ByteArrayOutputStream baout = new ByteArrayOutputStream();
+        ObjectUtils.marshal(s, baout);
+        ByteArrayInputStream bain = new ByteArrayInputStream(baout.toByteArray());
+        Assert.assertEquals(s, ObjectUtils.unmarshal(bain));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        int length = ObjectUtils.marshal(list, buffer);
+        Assert.assertEquals(length, buffer.position());
+        buffer.flip();
+        Assert.assertEquals(list, ObjectUtils.unmarshal(buffer));
+        Assert.assertArrayEquals(bytes, ObjectUtils.marshal(s));
+    }
+
+    @Test
+    public void testDeepCopy() {
+        Node root = new Node();
+        root.name = "root";
+        root.children.add(new Node());
+        root.children.add(root.children.get(0));
+        root.children.get(0).parent = root;
+        root.attributes.put("date", new Date(0));
+        root.values = new int[] {1, 2};
+        root.cache = "cache";
+
+        Node copy = ObjectUtils.deepCopy(root);
+        Assert.assertNotSame(root, copy);
+        Assert.assertSame(root.name, copy.name);
+        Assert.assertNotSame(root.children, copy.children);
+        Assert.assertSame(copy.children.get(0), copy.children.get(1));
+        Assert.assertSame(copy, copy.children.get(0).parent);
+        Assert.assertEquals(new Date(0), copy.attributes.get("date"));
+        Assert.assertNotSame(root.attributes.get("date"), copy.attributes.get("date"));
+        Assert.assertArrayEquals(root.values, copy.values);
+        Assert.assertNotSame(root.values, copy.values);
+        Assert.assertNull(copy.cache);
+        try {
+            ObjectUtils.deepCopy(new Thread());
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    private static class Node {
+        private String name;
+        private Node parent;
+        private List<Node> children = new ArrayList<>();
+        private Map<String, Object> attributes = new HashMap<>();
+        private int[] values;
+        private transient String cache;
     }
 }
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.BeanUtils;
+import zhyi.zse.lang.ClassCache;
+import zhyi.zse.lang.PropertyPath;
+
+/**
+ * @author Zhao Yi
+ */
+public class PropertyPathTest {
+    @Test
+    public void testGetSet() {
+        Node root = new Node("root");
+        Node child = new Node("child");
+        root.getChildren().add(child);
+        child.setMatrix(new int[][] {{1, 2}, {3, 4}});
+
+        Assert.assertSame(PropertyPath.compile("children[0].name"),
+                PropertyPath.compile("children[0].name"));
+        Assert.assertEquals("child", PropertyPath.compile("children[0].name").get(root));
+        Assert.assertEquals(4, PropertyPath.compile("children[0].matrix[1][1]").get(root));
+        Assert.assertNull(PropertyPath.compile("parent.name").get(root));
+
+        Assert.assertTrue(PropertyPath.compile("children[0].name").set(root, "leaf"));
+        Assert.assertEquals("leaf", child.getName());
+        Assert.assertTrue(PropertyPath.compile("children[0].matrix[0][1]").set(root, 9));
+        Assert.assertEquals(9, child.getMatrix()[0][1]);
+        Assert.assertFalse(PropertyPath.compile("parent.name").set(root, "none"));
+    }
+
+    @Test
+    public void testIntrospectionCache() {
+        // Accessors are looked up in the introspection cache, so removing
+        // a bean class from the cache affects compiled paths as well.
+        PropertyPath path = PropertyPath.compile("parent.name");
+        Node node = new Node("child");
+        node.setParent(new Node("root"));
+        Assert.assertEquals("root", path.get(node));
+        ClassCache<?> cache = BeanUtils.getIntrospectionCache();
+        long missCount = cache.getMissCount();
+        Assert.assertEquals("root", path.get(node));
+        Assert.assertEquals(missCount, cache.getMissCount());
+        cache.remove(Node.class);
+        Assert.assertEquals("root", path.get(node));
+        Assert.assertEquals(missCount + 1, cache.getMissCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedPath() {
+        PropertyPath.compile("children[x].name");
+    }
+
+    public static class Node {
+        private String name;
+        private Node parent;
+        private List<Node> children = new ArrayList<>();
+        private int[][] matrix;
+
+        public Node(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Node getParent() {
+            return parent;
+        }
+
+        public void setParent(Node parent) {
+            this.parent = parent;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        public int[][] getMatrix() {
+            return matrix;
+        }
+
+        public void setMatrix(int[][] matrix) {
+            this.matrix = matrix;
+        }
+    }
+}
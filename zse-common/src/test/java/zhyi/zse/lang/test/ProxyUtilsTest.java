@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.ProxyUtils;
+import zhyi.zse.lang.ReflectionUtils;
+
+/**
+ * @author Zhao Yi
+ */
+public class ProxyUtilsTest {
+    @Test
+    public void testSingleMethodInterface() {
+        Controller controller = new Controller();
+        PropertyChangeListener listener = ProxyUtils.newProxy(
+                PropertyChangeListener.class, controller, Collections.singletonMap(
+                        ReflectionUtils.getMethod(PropertyChangeListener.class,
+                                "propertyChange", PropertyChangeEvent.class),
+                        ReflectionUtils.getMethod(Controller.class,
+                                "onChange", PropertyChangeEvent.class)));
+        listener.propertyChange(new PropertyChangeEvent(this, "name", null, null));
+        Assert.assertEquals("name", controller.lastEvent);
+        Assert.assertFalse(Proxy.isProxyClass(listener.getClass()));
+    }
+
+    @Test
+    public void testMultiMethodInterface() {
+        Controller controller = new Controller();
+        Map<Method, Method> methodMap = new HashMap<>();
+        methodMap.put(ReflectionUtils.getMethod(Comparator.class, "compare", Object.class, Object.class),
+                ReflectionUtils.getDeclaredMethod(Controller.class, "compare", Object.class, Object.class));
+        @SuppressWarnings("unchecked")
+        Comparator<Object> comparator = ProxyUtils.newProxy(Comparator.class, controller, methodMap);
+        Assert.assertEquals(-1, comparator.compare("a", "b"));
+        Assert.assertEquals("a", controller.lastEvent);
+        Assert.assertTrue(comparator.equals(comparator));
+        Assert.assertFalse(comparator.equals(controller));
+
+        // Unmapped methods do nothing.
+        Runnable runnable = ProxyUtils.newProxy(Runnable.class,
+                controller, Collections.<Method, Method>emptyMap());
+        runnable.run();
+    }
+
+    @Test
+    public void testPrivateTargetsOfMultiMethodListener() {
+        Map<Method, Method> methodMap = new HashMap<>();
+        methodMap.put(ReflectionUtils.getMethod(Listener.class, "started", String.class),
+                ReflectionUtils.getDeclaredMethod(Controller.class, "onStarted", String.class));
+        methodMap.put(ReflectionUtils.getMethod(Listener.class, "progressed", String.class, int.class),
+                ReflectionUtils.getDeclaredMethod(Controller.class, "onProgressed", String.class, int.class));
+        Controller controller1 = new Controller();
+        Controller controller2 = new Controller();
+        Listener listener1 = ProxyUtils.newProxy(Listener.class, controller1, methodMap);
+        Listener listener2 = ProxyUtils.newProxy(Listener.class, controller2, methodMap);
+        Assert.assertTrue(Proxy.isProxyClass(listener1.getClass()));
+
+        // Repeated calls are dispatched to the methods bound to each proxy.
+        for (int i = 0; i < 3; i++) {
+            listener1.started("a");
+            Assert.assertEquals("a", controller1.lastEvent);
+            listener2.progressed("b", i);
+            Assert.assertEquals("b" + i, controller2.lastEvent);
+            listener1.progressed("c", i);
+            Assert.assertEquals("c" + i, controller1.lastEvent);
+            listener2.finished();
+            Assert.assertEquals("b" + i, controller2.lastEvent);
+        }
+    }
+
+    @Test
+    public void testDefaultMethods() {
+        Map<Method, Method> methodMap = new HashMap<>();
+        methodMap.put(ReflectionUtils.getMethod(Listener.class, "started", String.class),
+                ReflectionUtils.getDeclaredMethod(Controller.class, "onStarted", String.class));
+        methodMap.put(ReflectionUtils.getMethod(Listener.class, "cancelled", String.class),
+                ReflectionUtils.getDeclaredMethod(Controller.class, "onCancelled", String.class));
+        Controller controller = new Controller();
+        Listener listener = ProxyUtils.newProxy(Listener.class, controller, methodMap);
+        listener.cancelled("a");
+        Assert.assertEquals("cancelled a", controller.lastEvent);
+
+        // Unmapped default methods do nothing, like abstract ones.
+        listener.started("b");
+        Assert.assertNull(listener.describe());
+        Assert.assertEquals("b", controller.lastEvent);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testException() {
+        PropertyChangeListener listener = ProxyUtils.newProxy(
+                PropertyChangeListener.class, null, Collections.singletonMap(
+                        ReflectionUtils.getMethod(PropertyChangeListener.class,
+                                "propertyChange", PropertyChangeEvent.class),
+                        ReflectionUtils.getDeclaredMethod(Controller.class,
+                                "fail", PropertyChangeEvent.class)));
+        listener.propertyChange(new PropertyChangeEvent(this, "name", null, null));
+    }
+
+    public interface Listener {
+        void started(String name);
+
+        void progressed(String name, int percent);
+
+        void finished();
+
+        default void cancelled(String name) {
+            finished();
+        }
+
+        default String describe() {
+            return "listener";
+        }
+    }
+
+    public static class Controller {
+        private String lastEvent;
+
+        public void onChange(PropertyChangeEvent evt) {
+            lastEvent = evt.getPropertyName();
+        }
+
+        private int compare(Object o1, Object o2) {
+            lastEvent = (String) o1;
+            return -1;
+        }
+
+        private void onStarted(String name) {
+            lastEvent = name;
+        }
+
+        private void onProgressed(String name, int percent) {
+            lastEvent = name + percent;
+        }
+
+        private void onCancelled(String name) {
+            lastEvent = "cancelled " + name;
+        }
+
+        private static void fail(PropertyChangeEvent evt) {
+            throw new IllegalStateException();
+        }
+    }
+}
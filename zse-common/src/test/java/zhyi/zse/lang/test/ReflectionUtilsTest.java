@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2013 Zhao Yi
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package zhyi.zse.lang.test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.junit.Assert;
+import org.junit.Test;
+import zhyi.zse.lang.ReflectionUtils;
+
+/**
+ * @author Zhao Yi
+ */
+public class ReflectionUtilsTest {
+    @Test
+    public void testInvoke() {
+        Method concat = ReflectionUtils.getMethod(String.class, "concat", String.class);
+        Assert.assertEquals("ab", ReflectionUtils.invoke1(concat, "a", "b"));
+        Assert.assertEquals("ab", ReflectionUtils.invoke(concat, "a", "b"));
+
+        Method length = ReflectionUtils.getMethod(String.class, "length");
+        Assert.assertEquals(3, ReflectionUtils.invoke0(length, "abc"));
+
+        Method max = ReflectionUtils.getMethod(Math.class, "max", long.class, long.class);
+        Assert.assertEquals(5L, ReflectionUtils.invoke2(max, null, 3L, 5L));
+    }
+
+    @Test
+    public void testInvocationTargetException() {
+        Method parseInt = ReflectionUtils.getMethod(Integer.class, "parseInt", String.class);
+        try {
+            ReflectionUtils.invoke1(parseInt, null, "x");
+            Assert.fail();
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getCause() instanceof InvocationTargetException);
+            Assert.assertTrue(ex.getCause().getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @Test
+    public void testLookupCache() {
+        ClassLoader loader = ReflectionUtilsTest.class.getClassLoader();
+        Assert.assertEquals(String.class, ReflectionUtils.findClass("java.lang.String", false, loader));
+        Assert.assertNull(ReflectionUtils.findClass("java.lang.Missing", false, loader));
+        long negativeHitCount = ReflectionUtils.getNegativeLookupHitCount();
+        Assert.assertNull(ReflectionUtils.findClass("java.lang.Missing", false, loader));
+        Assert.assertEquals(negativeHitCount + 1, ReflectionUtils.getNegativeLookupHitCount());
+
+        Method m = ReflectionUtils.findMethod(String.class, "indexOf", int.class);
+        long hitCount = ReflectionUtils.getLookupHitCount();
+        Assert.assertSame(m, ReflectionUtils.getMethod(String.class, "indexOf", int.class));
+        Assert.assertEquals(hitCount + 1, ReflectionUtils.getLookupHitCount());
+        Assert.assertNull(ReflectionUtils.findMethod(String.class, "indexOf", Thread.class));
+        Assert.assertNull(ReflectionUtils.findField(String.class, "missing"));
+        Assert.assertNotNull(ReflectionUtils.findDeclaredField(Holder.class, "value"));
+
+        // Parameter types invisible from the class's loader are not cached
+        // with the class.
+        Assert.assertNull(ReflectionUtils.findMethod(Object.class, "missing", Holder.class));
+        negativeHitCount = ReflectionUtils.getNegativeLookupHitCount();
+        Assert.assertNull(ReflectionUtils.findMethod(Object.class, "missing", Holder.class));
+        Assert.assertEquals(negativeHitCount, ReflectionUtils.getNegativeLookupHitCount());
+        Assert.assertNull(ReflectionUtils.findMethod(String.class, "missing", Object.class));
+        Assert.assertNull(ReflectionUtils.findMethod(String.class, "missing", Object.class));
+        Assert.assertEquals(negativeHitCount + 1, ReflectionUtils.getNegativeLookupHitCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongArgumentType() {
+        Method concat = ReflectionUtils.getMethod(String.class, "concat", String.class);
+        ReflectionUtils.invoke1(concat, "a", 1);
+    }
+
+    private static class Holder {
+        private int value;
+    }
+}
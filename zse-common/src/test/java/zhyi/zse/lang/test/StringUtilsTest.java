@@ -16,10 +16,19 @@
  */
 package zhyi.zse.lang.test;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.junit.Assert;
 import org.junit.Test;
+import zhyi.zse.lang.Replacer;
+import zhyi.zse.lang.SplitIterator;
+import zhyi.zse.lang.Splitter;
 import zhyi.zse.lang.StringUtils;
 import zhyi.zse.lang.StringUtils.DelimitationStyle;
 
@@ -42,6 +51,18 @@ public class StringUtilsTest {
                 sources, delimiter, DelimitationStyle.INSERT_DELIMITER));
     }
 
+    @Test
+    public void testConcatToAppendable() throws IOException {
+        List<Object> sources = Arrays.<Object>asList("a", 1, new StringBuilder("b"), null);
+        for (DelimitationStyle style : DelimitationStyle.values()) {
+            StringWriter writer = new StringWriter();
+            Assert.assertSame(writer, StringUtils.concat(writer, sources, ", ", style));
+            Assert.assertEquals(StringUtils.concat(sources, ", ", style), writer.toString());
+        }
+        Assert.assertEquals("xa, 1, b, null", StringUtils.concat(new StringBuilder("x"),
+                sources, ", ", DelimitationStyle.INSERT_DELIMITER).toString());
+    }
+
     @Test
     public void testReplace() {
         String source = "abccdeccc";
@@ -56,6 +77,49 @@ public class StringUtilsTest {
         Assert.assertEquals("abzdezc", StringUtils.replace(source, "cc", "z", 3));
     }
 
+    @Test
+    public void testReplacer() throws IOException {
+        Map<String, String> replacementMap = new HashMap<>();
+        replacementMap.put("he", "she");
+        replacementMap.put("she", "he");
+        replacementMap.put("hers", "his");
+        replacementMap.put("bc", "x");
+        replacementMap.put("abcd", "y");
+        Replacer replacer = new Replacer(replacementMap);
+        Assert.assertEquals("he said she did", replacer.replace("she said he did"));
+        Assert.assertEquals("uhers his", replacer.replace("ushers hers"));
+        Assert.assertEquals("ay-x-yx", replacer.replace("aabcd-bc-abcdbc"));
+        Assert.assertEquals("", replacer.replace(""));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append(i).append("ushers abc abcd she ");
+        }
+        String source = sb.toString();
+        StringWriter writer = new StringWriter();
+        replacer.replace(new StringReader(source), writer);
+        Assert.assertEquals(replacer.replace(source), writer.toString());
+        Assert.assertEquals(StringUtils.replaceAll(StringUtils.replaceAll(
+                source, "she", "he"), "abcd", "y").replace("abc", "ax"), writer.toString());
+        writer = new StringWriter();
+        replacer.replace(new TrickleReader(source), writer);
+        Assert.assertEquals(replacer.replace(source), writer.toString());
+
+        // A shorter match ending inside a longer one must not be written out
+        // before the longer one is complete.
+        replacementMap.clear();
+        replacementMap.put("abb", "1");
+        replacementMap.put("b", "0");
+        replacer = new Replacer(replacementMap);
+        String[][] cases = {{"abb", "1"}, {"aabbab", "a1a0"}, {"abab", "a0a0"}, {"ab", "a0"}};
+        for (String[] c : cases) {
+            Assert.assertEquals(c[1], replacer.replace(c[0]));
+            writer = new StringWriter();
+            replacer.replace(new TrickleReader(c[0]), writer);
+            Assert.assertEquals(c[1], writer.toString());
+        }
+    }
+
     @Test
     public void testSplit() {
         String source = "/a&*// &&**b/xyz / ";
@@ -106,4 +170,75 @@ public class StringUtilsTest {
         Assert.assertEquals(Arrays.asList("/a", "// &", "*b/xyz / "),
                 StringUtils.split(source, pf, DelimitationStyle.IGNORE_DELIMITER, false, limit));
     }
+
+    @Test
+    public void testSplitIterator() {
+        String source = " a, b ,,c ";
+        SplitIterator it = new SplitIterator(source, ",", true);
+        Assert.assertTrue(it.nextSegment());
+        Assert.assertEquals(1, it.start());
+        Assert.assertEquals(2, it.end());
+        Assert.assertTrue(it.hasNext());
+        Assert.assertEquals("b", it.next());
+        Assert.assertEquals("", it.next());
+        Assert.assertTrue(it.nextSegment());
+        Assert.assertEquals("c", it.segment());
+        Assert.assertFalse(it.hasNext());
+        Assert.assertFalse(it.nextSegment());
+
+        for (DelimitationStyle style : new DelimitationStyle[] {
+                DelimitationStyle.IGNORE_DELIMITER, DelimitationStyle.PREPEND_DELIMITER,
+                DelimitationStyle.APPEND_DELIMITER}) {
+            for (String delimiter : new String[] {"", "/", "//"}) {
+                for (int limit = -1; limit < 4; limit++) {
+                    List<String> segments = new ArrayList<>();
+                    it = new SplitIterator("/ab//c/", delimiter, style, true, limit);
+                    while (it.hasNext()) {
+                        segments.add(it.next());
+                    }
+                    Assert.assertEquals(StringUtils.split(
+                            "/ab//c/", delimiter, style, true, limit), segments);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSplitter() {
+        Splitter splitter = new Splitter(Arrays.asList(",", ", ", ";"),
+                DelimitationStyle.APPEND_DELIMITER, false, -1);
+        Assert.assertEquals(Arrays.asList("a, ", "b;", "c,", ""), splitter.split("a, b;c,"));
+        splitter = new Splitter(Arrays.asList(";", ","),
+                DelimitationStyle.PREPEND_DELIMITER, true, 2);
+        Assert.assertEquals(Arrays.asList("a", ", b", "; c,d"), splitter.split("a, b; c,d"));
+
+        String delimiter = "<-- separator -->";
+        String source = "a" + delimiter + delimiter + "<-- separator <-- separator -->b";
+        for (DelimitationStyle style : new DelimitationStyle[] {
+                DelimitationStyle.IGNORE_DELIMITER, DelimitationStyle.PREPEND_DELIMITER,
+                DelimitationStyle.APPEND_DELIMITER}) {
+            Assert.assertEquals(StringUtils.split(source, delimiter, style, false, -1),
+                    new Splitter(delimiter, style, false, -1).split(source));
+        }
+
+        try {
+            new Splitter(Arrays.asList(",", ""), null, false, -1);
+            Assert.fail();
+        } catch (IllegalArgumentException ex) {
+        }
+    }
+
+    /**
+     * Reads at most one character at a time.
+     */
+    private static class TrickleReader extends StringReader {
+        TrickleReader(String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, 1));
+        }
+    }
 }
@@ -17,7 +17,6 @@
 package zhyi.zse.opt;
 
 import java.io.IOException;
-import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -114,9 +113,6 @@ public abstract class CachedOptionManager extends OptionManager {
             Converter<T> converter = converterManager.getConverter(valueClass);
             if (converter != null) {
                 return converter.asObject(literalValue);
-            } else if (Serializable.class.isAssignableFrom(valueClass)) {
-                return valueClass.cast(converterManager
-                        .getConverter(Serializable.class).asObject(literalValue));
             }
         } catch (Exception ex) {
         }
@@ -126,13 +122,7 @@ public abstract class CachedOptionManager extends OptionManager {
     private <T> String asString(Object value, Class<T> valueClass) {
         T typedValue = valueClass.cast(value);
         Converter<T> converter = converterManager.getConverter(valueClass);
-        if (converter != null) {
-            return converter.asString(typedValue);
-        } else if (typedValue instanceof Serializable) {
-            return converterManager.getConverter(Serializable.class)
-                    .asString((Serializable) typedValue);
-        }
-        return null;
+        return converter == null ? null : converter.asString(typedValue);
     }
 
     private static Object wrapNull(Object o) {
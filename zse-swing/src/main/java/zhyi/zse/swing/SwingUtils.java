@@ -637,7 +637,7 @@ public final class SwingUtils {
             TableHeaderUI headerUi = tableHeader.getUI();
             Component headerComponent;
             if (headerUi instanceof BasicTableHeaderUI) {
-                headerComponent = (Component) ReflectionUtils.invoke(
+                headerComponent = (Component) ReflectionUtils.invoke1(
                         GET_HEADER_RENDERER, tableHeader.getUI(), column);
             } else {
                 TableCellRenderer headerRenderer = tableColumn.getHeaderRenderer();
@@ -950,7 +950,7 @@ public final class SwingUtils {
             if (!tc.isBackgroundSet()
                     || tc.getBackground() instanceof UIResource) {
                 if (tc.isEnabled()) {
-                    String prefix = (String) ReflectionUtils.invoke(
+                    String prefix = (String) ReflectionUtils.invoke0(
                             GET_PROPERTY_PREFIX, tc.getUI());
                     tc.setBackground(tc.isEditable()
                             ? UIManager.getColor(prefix + ".background")
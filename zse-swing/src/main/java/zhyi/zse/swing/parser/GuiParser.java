@@ -33,10 +33,10 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Dictionary;
+import java.util.EventListener;
 import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
@@ -87,9 +87,14 @@ import zhyi.zse.collection.CollectionUtils;
 import zhyi.zse.conversion.AbstractConverter;
 import zhyi.zse.conversion.Converter;
 import zhyi.zse.conversion.ConverterManager;
+import zhyi.zse.conversion.PrimitiveConverter;
 import zhyi.zse.i18n.FallbackLocaleControl;
-import zhyi.zse.lang.AbstractInvocationHandler;
+import zhyi.zse.lang.BeanUtils;
+import zhyi.zse.lang.ClassCache;
+import zhyi.zse.lang.PropertyPath;
+import zhyi.zse.lang.ProxyUtils;
 import zhyi.zse.lang.ReflectionUtils;
+import zhyi.zse.lang.SplitIterator;
 import zhyi.zse.lang.StringUtils;
 import zhyi.zse.lang.StringUtils.DelimitationStyle;
 import zhyi.zse.swing.MultiValueSelector;
@@ -115,8 +120,13 @@ public class GuiParser {
             = ReflectionUtils.getDeclaredConstructor(
                     ReflectionUtils.getClass("javax.swing.text.html.CSSBorder"),
                     AttributeSet.class);
-    private static final Map<Class<?>, BeanMate> beanMateMap = new HashMap<>();
-    private static final Map<Class<?>, ListenerMate> listenerMateMap = new HashMap<>();
+    private static final ClassCache<ListenerMate> listenerMateCache
+            = new ClassCache<ListenerMate>() {
+        @Override
+        protected ListenerMate computeValue(Class<?> c) {
+            return new ListenerMate(c);
+        }
+    };
     private static final PropertyChangeListener COMPOUND_COMPONENT_LOCALE_CHANGE_HANLER
             = new CompoundComponentLocaleChangeHandler();
     private static final PropertyChangeListener DATA_COMPONENT_LOCALE_CHANGE_HANLER
@@ -179,9 +189,8 @@ public class GuiParser {
         converterManager.register(Dimension.class, new AsObjectOnly<Dimension>() {
             @Override
             protected Dimension asObjectInternal(String literalValue) {
-                List<String> dimensions = StringUtils.split(literalValue, ",", true, 1);
-                return new Dimension(Integer.parseInt(dimensions.get(0)),
-                        Integer.parseInt(dimensions.get(1)));
+                int[] dimensions = parseInts(literalValue, 2);
+                return new Dimension(dimensions[0], dimensions[1]);
             }
         });
         converterManager.register(Font.class, new AsObjectOnly<Font>() {
@@ -207,21 +216,17 @@ public class GuiParser {
         converterManager.register(Insets.class, new AsObjectOnly<Insets>() {
             @Override
             protected Insets asObjectInternal(String literalValue) {
-                List<String> parameters = StringUtils.split(literalValue, ",", true, 3);
-                return new Insets(Integer.parseInt(parameters.get(0)),
-                        Integer.parseInt(parameters.get(1)),
-                        Integer.parseInt(parameters.get(2)),
-                        Integer.parseInt(parameters.get(3)));
+                int[] parameters = parseInts(literalValue, 4);
+                return new Insets(parameters[0], parameters[1],
+                        parameters[2], parameters[3]);
             }
         });
         converterManager.register(Rectangle.class, new AsObjectOnly<Rectangle>() {
             @Override
             protected Rectangle asObjectInternal(String literalValue) {
-                List<String> parameters = StringUtils.split(literalValue, ",", true, 3);
-                return new Rectangle(Integer.parseInt(parameters.get(0)),
-                        Integer.parseInt(parameters.get(1)),
-                        Integer.parseInt(parameters.get(2)),
-                        Integer.parseInt(parameters.get(3)));
+                int[] parameters = parseInts(literalValue, 4);
+                return new Rectangle(parameters[0], parameters[1],
+                        parameters[2], parameters[3]);
             }
         });
         converterManager.register(KeyStroke.class, new AsObjectOnly<KeyStroke>() {
@@ -536,10 +541,9 @@ public class GuiParser {
     }
 
     private void setProperties(final Object bean, Element e) {
-        BeanMate bm = getBeanMate(bean.getClass());
         String borderTitle = null;
         for (Node attr : DocumentUtils.getAttributes(e)) {
-            String name = attr.getNodeName();
+            final String name = attr.getNodeName();
             final String value = attr.getNodeValue();
             switch (name) {
                 case "id":
@@ -554,7 +558,7 @@ public class GuiParser {
                             BorderLayout.PAGE_START);
                     break;
                 default:
-                    final Method setter = bm.setterMap.get(name);
+                    Method setter = BeanUtils.getWriteMethod(bean.getClass(), name);
                     if (setter == null) {
                         continue;
                     }
@@ -571,17 +575,14 @@ public class GuiParser {
                             c.setFont(c.getFont().deriveFont(map));
                         }
                     } else {
-                        ReflectionUtils.invoke(setter, bean, prop);
+                        BeanUtils.setProperty(bean, name, prop);
                         if (dynamicLocale && isLocalizable(value)) {
                             ((Component) bean).addPropertyChangeListener("locale",
                                     new PropertyChangeListener() {
                                 @Override
                                 public void propertyChange(PropertyChangeEvent evt) {
-                                    try {
-                                        setter.invoke(bean, evaluate(value, propClass));
-                                    } catch (ReflectiveOperationException ex) {
-                                        throw new RuntimeException(ex);
-                                    }
+                                    BeanUtils.setProperty(bean, name,
+                                            evaluate(value, propClass));
                                 }
                             });
                         }
@@ -618,9 +619,10 @@ public class GuiParser {
             Integer axis = evaluate(
                     DocumentUtils.getAttribute(link, "axis"), Integer.class, null);
             List<JComponent> components = new ArrayList<>();
-            for (String ref : StringUtils.split(
-                    DocumentUtils.getAttribute(link, "components"), ",", true)) {
-                components.add((JComponent) objectMap.get(ref));
+            SplitIterator it = new SplitIterator(
+                    DocumentUtils.getAttribute(link, "components"), ",", true);
+            while (it.hasNext()) {
+                components.add((JComponent) objectMap.get(it.next()));
             }
             if (axis == null) {
                 gl.linkSize(components.toArray(new JComponent[components.size()]));
@@ -733,8 +735,8 @@ public class GuiParser {
     }
 
     private void addListener(Object bean, Element e) {
-        ListenerMate lm = getListenerMate(getClass(e.getTagName()));
-        final Map<Method, Method> methodMap = new HashMap<>();
+        ListenerMate lm = listenerMateCache.get(getClass(e.getTagName()));
+        Map<Method, Method> methodMap = new HashMap<>();
         String forProp = null;
         String propName = null;
         for (Node attr : DocumentUtils.getAttributes(e)) {
@@ -754,48 +756,32 @@ public class GuiParser {
             }
         }
 
-        Object listener = Proxy.newProxyInstance(controllerLoader,
-                new Class<?>[] {lm.listenerClass}, new AbstractInvocationHandler() {
-            @Override
-            public Object invokeOthers(Object proxy, Method method, Object[] args) {
-                Method controllerMethod = methodMap.get(method);
-                if (controllerMethod != null) {
-                    ReflectionUtils.invoke(controllerMethod, controller, args);
-                }
-                return null;
-            }
-        });
+        EventListener listener = ProxyUtils.newProxy(
+                lm.listenerClass, controller, methodMap);
 
         Object target = bean;
         if (forProp != null) {
-            String getter = "get" + Character.toUpperCase(forProp.charAt(0))
-                    + forProp.substring(1);
-            target = ReflectionUtils.invoke(
-                    ReflectionUtils.getMethod(bean.getClass(), getter), bean);
+            target = PropertyPath.compile(forProp).get(bean);
         }
 
         if (propName != null && PropertyChangeListener
                 .class.isAssignableFrom(lm.listenerClass)) {
-            ReflectionUtils.invoke(
-                    ReflectionUtils.getMethod(target.getClass(),
-                            "addPropertyChangeListener",
-                            String.class, PropertyChangeListener.class),
-                    target, listener);
+            BeanUtils.addNamedPropertyChangeListener(
+                    target, propName, (PropertyChangeListener) listener);
         } else {
-            ReflectionUtils.invoke(
-                    getBeanMate(target.getClass()).addListenerMap.get(lm.listenerClass),
-                    target, listener);
+            BeanUtils.addListener(target, lm.listenerClass, listener);
         }
     }
 
     private Class<?> getClass(String name) {
         Class<?> beanClass = importMap.get(name);
         if (beanClass == null) {
+            // Failed probes are cached by ReflectionUtils, so probing the
+            // same names again is cheap.
             for (String starImport : starImports) {
-                String path = starImport.replace('.', '/') + name + ".class";
-                if (controllerLoader.getResource(path) != null) {
-                    beanClass = ReflectionUtils.getClass(
-                            starImport + name, true, controllerLoader);
+                beanClass = ReflectionUtils.findClass(
+                        starImport + name, true, controllerLoader);
+                if (beanClass != null) {
                     importMap.put(name, beanClass);
                     break;
                 }
@@ -858,6 +844,22 @@ public class GuiParser {
         return literalValue == null ? nullDefault : evaluate(literalValue, valueClass);
     }
 
+    // Parses a fixed number of comma separated integers in place, without
+    // splitting the literal value into substrings.
+    private int[] parseInts(String literalValue, int count) {
+        PrimitiveConverter.OfInt intConverter = converterManager.getIntConverter();
+        int[] values = new int[count];
+        SplitIterator it = new SplitIterator(literalValue, ",", null, true, count - 1);
+        for (int i = 0; i < count; i++) {
+            if (!it.nextSegment()) {
+                throw new IllegalArgumentException(
+                        count + " integers are expected: " + literalValue);
+            }
+            values[i] = intConverter.parseInt(literalValue, it.start(), it.end());
+        }
+        return values;
+    }
+
     /**
      * A short cut to parse GUI with default configurations.
      *
@@ -886,57 +888,18 @@ public class GuiParser {
         }
     }
 
-    private static BeanMate getBeanMate(Class<?> c) {
-        BeanMate bm = beanMateMap.get(c);
-        if (bm == null) {
-            bm = new BeanMate(c);
-            beanMateMap.put(c, bm);
-        }
-        return bm;
-    }
-
-    private static ListenerMate getListenerMate(Class<?> c) {
-        ListenerMate lm = listenerMateMap.get(c);
-        if (lm == null) {
-            lm = new ListenerMate(c);
-            listenerMateMap.put(c, lm);
-        }
-        return lm;
-    }
-
     private static boolean isLocalizable(String exp) {
         return (exp.startsWith("#{res.") || exp.startsWith("#{uid."))
                 && exp.endsWith("}");
     }
 
-    private static class BeanMate {
-        private Map<String, Method> setterMap;
-        private Map<Class<?>, Method> addListenerMap;
-
-        private BeanMate(Class<?> beanClass) {
-            setterMap = new HashMap<>();
-            addListenerMap = new HashMap<>();
-            for (Method method : beanClass.getMethods()) {
-                if (method.getParameterTypes().length == 1) {
-                    String name = method.getName();
-                    if (name.startsWith("set")) {
-                        setterMap.put(Character.toLowerCase(
-                                name.charAt(3)) + name.substring(4), method);
-                    }
-                    if (name.startsWith("add") && name.endsWith("Listener")) {
-                        addListenerMap.put(method.getParameterTypes()[0], method);
-                    }
-                }
-            }
-        }
-    }
-
     private static class ListenerMate {
-        private Class<?> listenerClass;
+        private Class<EventListener> listenerClass;
         private Map<String, Method> methodMap;
 
+        @SuppressWarnings("unchecked")
         private ListenerMate(Class<?> listenerClass) {
-            this.listenerClass = listenerClass;
+            this.listenerClass = (Class<EventListener>) listenerClass;
             methodMap = new HashMap<>();
             for (Method method : listenerClass.getMethods()) {
                 methodMap.put(method.getName(), method);
@@ -66,18 +66,18 @@ public class NimbusTextBackgroundPainter extends AbstractRegionPainter {
 
     @Override
     protected Object[] getExtendedCacheKeys(JComponent c) {
-        return (Object[]) ReflectionUtils.invoke(
+        return (Object[]) ReflectionUtils.invoke1(
                 GET_EXTENDED_CACHE_KEYS, defaultPainter, c);
     }
 
     @Override
     protected void configureGraphics(Graphics2D g) {
-        ReflectionUtils.invoke(CONFIGURE_GRAPHICS, defaultPainter, g);
+        ReflectionUtils.invoke1(CONFIGURE_GRAPHICS, defaultPainter, g);
     }
 
     @Override
     protected PaintContext getPaintContext() {
-        return (PaintContext) ReflectionUtils.invoke(
+        return (PaintContext) ReflectionUtils.invoke0(
                 GET_PAINT_CONTEXT, defaultPainter);
     }
 
@@ -90,7 +90,7 @@ public class NimbusTextBackgroundPainter extends AbstractRegionPainter {
 
         JTextComponent tc = (JTextComponent) c;
         if (tc.isEnabled() && !tc.isEditable() && tc.getBackground().equals(UIManager.getColor(
-                ReflectionUtils.invoke(GET_PROPERTY_PREFIX, tc.getUI()) + ".background"))) {
+                ReflectionUtils.invoke0(GET_PROPERTY_PREFIX, tc.getUI()) + ".background"))) {
             // If the text component is not editable, and the background is not
             // explicitly set, paint the background with inactiveBackground.
             // In Nimbus L&F, getBackground() always returns the a fake derived